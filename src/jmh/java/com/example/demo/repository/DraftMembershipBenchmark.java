@@ -0,0 +1,155 @@
+package com.example.demo.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// "My draws" lookups over 1M draft_participants rows (20k drafts x 50 participants, 100k users),
+// with and without the (user_id, draft_id) reverse indexes. The SQL mirrors what Hibernate generates
+// for the old entity path and for the paginated summary queries in DraftRepository.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DraftMembershipBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int DRAFTS = 20_000;
+    private static final int PARTICIPANTS_PER_DRAFT = 50;
+    private static final int PAGE_SIZE = 50;
+
+    private static final String SUMMARY_PAGE =
+            "SELECT d.id, d.title, d.status, d.number_of_winners, "
+            + "(SELECT COUNT(*) FROM draft_participants x WHERE x.draft_id = d.id), "
+            + "(SELECT COUNT(*) FROM draft_winners x WHERE x.draft_id = d.id), "
+            + "d.created_at, d.executed_at, d.scheduled_at "
+            + "FROM drafts d JOIN draft_participants p ON p.draft_id = d.id WHERE p.user_id = ? "
+            + "ORDER BY d.created_at DESC, d.id DESC FETCH FIRST " + (PAGE_SIZE + 1) + " ROWS ONLY";
+
+    private static final String ENTITY_DRAFTS =
+            "SELECT d.id, d.title, d.description, d.status, d.number_of_winners, d.created_at, d.executed_at "
+            + "FROM drafts d JOIN draft_participants p ON p.draft_id = d.id WHERE p.user_id = ?";
+
+    private static final String ENTITY_PARTICIPANTS =
+            "SELECT dp.draft_id, u.id, u.name, u.email FROM draft_participants dp "
+            + "JOIN users u ON u.id = dp.user_id WHERE dp.draft_id = ANY(?)";
+
+    @Param({"true", "false"})
+    private boolean reverseIndex;
+
+    private Connection connection;
+    private PreparedStatement summaryPage;
+    private PreparedStatement entityDrafts;
+    private PreparedStatement entityParticipants;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:membership_" + reverseIndex);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255))");
+            statement.execute("CREATE TABLE drafts (id BIGINT PRIMARY KEY, title VARCHAR(255), description VARCHAR(255), "
+                    + "status VARCHAR(20), number_of_winners INT, created_at TIMESTAMP, executed_at TIMESTAMP, "
+                    + "scheduled_at TIMESTAMP)");
+            statement.execute("CREATE TABLE draft_participants (draft_id BIGINT, user_id BIGINT)");
+            statement.execute("CREATE TABLE draft_winners (draft_id BIGINT, user_id BIGINT)");
+
+            statement.execute("INSERT INTO users SELECT X, 'User ' || X, 'user' || X || '@example.com' "
+                    + "FROM SYSTEM_RANGE(1, " + USERS + ")");
+            statement.execute("INSERT INTO drafts SELECT X, 'Draft ' || X, 'Benchmark draft', 'EXECUTED', 1, "
+                    + "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'), NULL, NULL "
+                    + "FROM SYSTEM_RANGE(1, " + DRAFTS + ")");
+            // 7919 is coprime with USERS, so each draft gets PARTICIPANTS_PER_DRAFT distinct users
+            statement.execute("INSERT INTO draft_participants SELECT d.X, MOD((d.X * " + PARTICIPANTS_PER_DRAFT
+                    + " + p.X) * 7919, " + USERS + ") + 1 "
+                    + "FROM SYSTEM_RANGE(1, " + DRAFTS + ") d, SYSTEM_RANGE(1, " + PARTICIPANTS_PER_DRAFT + ") p");
+            statement.execute("INSERT INTO draft_winners SELECT draft_id, MIN(user_id) FROM draft_participants "
+                    + "GROUP BY draft_id");
+
+            statement.execute("CREATE INDEX idx_drafts_created_at_id ON drafts (created_at, id)");
+            statement.execute("CREATE INDEX idx_draft_participants_draft_user ON draft_participants (draft_id, user_id)");
+            statement.execute("CREATE INDEX idx_draft_winners_draft_user ON draft_winners (draft_id, user_id)");
+            if (reverseIndex) {
+                statement.execute("CREATE INDEX idx_draft_participants_user_draft ON draft_participants (user_id, draft_id)");
+                statement.execute("CREATE INDEX idx_draft_winners_user_draft ON draft_winners (user_id, draft_id)");
+            }
+            statement.execute("ANALYZE");
+        }
+        summaryPage = connection.prepareStatement(SUMMARY_PAGE);
+        entityDrafts = connection.prepareStatement(ENTITY_DRAFTS);
+        entityParticipants = connection.prepareStatement(ENTITY_PARTICIPANTS);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        connection.close();
+    }
+
+    // The old path: load the user's draft entities, then every participant of each of them
+    @Benchmark
+    public void entityPath(Blackhole blackhole) throws SQLException {
+        List<Long> draftIds = new ArrayList<>();
+        entityDrafts.setLong(1, randomUserId());
+        try (ResultSet rs = entityDrafts.executeQuery()) {
+            while (rs.next()) {
+                draftIds.add(rs.getLong(1));
+                blackhole.consume(rs.getString(2));
+                blackhole.consume(rs.getString(3));
+            }
+        }
+        if (draftIds.isEmpty()) {
+            return;
+        }
+        entityParticipants.setArray(1, connection.createArrayOf("BIGINT", draftIds.toArray()));
+        try (ResultSet rs = entityParticipants.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(2));
+                blackhole.consume(rs.getString(3));
+                blackhole.consume(rs.getString(4));
+            }
+        }
+    }
+
+    // The summary path: one keyset page of counts-only summaries
+    @Benchmark
+    public void summaryPage(Blackhole blackhole) throws SQLException {
+        summaryPage.setLong(1, randomUserId());
+        try (ResultSet rs = summaryPage.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(1));
+                blackhole.consume(rs.getString(2));
+                blackhole.consume(rs.getInt(5));
+                blackhole.consume(rs.getInt(6));
+            }
+        }
+    }
+
+    private static long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+}
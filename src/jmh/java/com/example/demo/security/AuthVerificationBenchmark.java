@@ -0,0 +1,69 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of each way a request can be authenticated: a full BCrypt verify (HTTP Basic on a
+// cache miss, /api/auth/login), a credential cache hit (repeated HTTP Basic) and a bearer token check.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthVerificationBenchmark {
+
+    private static final String EMAIL = "john.doe@example.com";
+    private static final String PASSWORD = "password123";
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+    private CredentialCache credentialCache;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // Same strength as SecurityConfig's encoder
+        passwordEncoder = new BCryptPasswordEncoder();
+        passwordHash = passwordEncoder.encode(PASSWORD);
+
+        credentialCache = new CredentialCache(Duration.ofHours(1), 10_000, new SimpleMeterRegistry());
+        credentialCache.put(EMAIL, PASSWORD,
+                UsernamePasswordAuthenticationToken.authenticated(EMAIL, null, Collections.emptyList()));
+
+        tokenService = new TokenService("benchmark-signing-secret-of-32-bytes!", Duration.ofHours(1));
+        token = tokenService.issue(1L, EMAIL).token();
+    }
+
+    @Benchmark
+    public boolean bcryptVerify() {
+        return passwordEncoder.matches(PASSWORD, passwordHash);
+    }
+
+    @Benchmark
+    public Object credentialCacheHit() {
+        return credentialCache.get(EMAIL, PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<TokenService.TokenClaims> tokenVerify() {
+        return tokenService.verify(token);
+    }
+}
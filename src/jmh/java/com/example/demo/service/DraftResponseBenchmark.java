@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.dto.DraftResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of producing a draft detail body on a response cache miss, through the public DraftService path:
+// loading the draft with its participants and winners and converting it (getDraftById), then Jackson
+// serialization with Boot's ObjectMapper, for executed drafts with a growing number of participants
+// (10 winners each). Runs the application on an in-memory H2 database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DraftResponseBenchmark {
+
+    private static final int WINNERS = 10;
+
+    @Param({"100", "10000", "100000"})
+    private int participants;
+
+    private ConfigurableApplicationContext context;
+    private DraftService draftService;
+    private Long draftId;
+    private DraftResponse response;
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(DemoApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:draft_response_benchmark_" + participants + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--app.draft.scheduler.enabled=false");
+        draftService = context.getBean(DraftService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        // The 5 seeded users are replaced so the draft has exactly the requested participants
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM draft_winners");
+        jdbcTemplate.update("DELETE FROM draft_participants");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (name, email, password, age) "
+                + "SELECT 'User ' || X, 'user' || X || '@example.com', 'x', 30 FROM SYSTEM_RANGE(1, ?)", participants);
+
+        draftId = draftService.createDraft(
+                new DraftCreateRequest("Benchmark draft", "Draft with " + participants + " participants", WINNERS, null))
+                .getId();
+        draftService.executeDraft(draftId);
+
+        response = draftService.getDraftById(draftId);
+        responseWriter = objectMapper.writerFor(DraftResponse.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DraftResponse getDraftById() {
+        return draftService.getDraftById(draftId);
+    }
+
+    // What DraftResponseCache pays on a miss after the load
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Same, with the serializer chain resolved once up front
+    @Benchmark
+    public byte[] serializeWithPreparedWriter() throws JsonProcessingException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] loadAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(draftService.getDraftById(draftId));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Login throughput under concurrent logins, through the real UserService on an in-memory H2 database:
+// authenticate() (one findByEmail) against the old AuthController path, authenticateUser() followed
+// by findUserByEmail() (two lookups). Both pay one BCrypt verify, which dominates on small machines;
+// emailLookup measures the query the single-lookup path saves on its own.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class LoginLookupBenchmark {
+
+    private static final String EMAIL = "john.doe@example.com";
+    private static final String PASSWORD = "password123";
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(DemoApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:login_benchmark;DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--app.draft.scheduler.enabled=false");
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> oneLookup() {
+        return userService.authenticate(EMAIL, PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<User> twoLookups() {
+        return userService.authenticateUser(EMAIL, PASSWORD) ? userService.findUserByEmail(EMAIL) : Optional.empty();
+    }
+
+    @Benchmark
+    public Optional<User> emailLookup() {
+        return userService.findUserByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Winner selection cost across participant counts (n) and winner counts (k)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinnerSelectorBenchmark {
+
+    @Param({"1000", "100000", "500000"})
+    private int participants;
+
+    @Param({"3", "100"})
+    private int winners;
+
+    private List<Long> participantList;
+    private SecureRandom random;
+    private FloydWinnerSelector floyd;
+    private ShuffleWinnerSelector shuffle;
+    private RoaringBitmap participantBitmap;
+
+    @Setup
+    public void setUp() {
+        participantList = new ArrayList<>(participants);
+        for (long i = 0; i < participants; i++) {
+            participantList.add(i);
+        }
+        random = new SecureRandom();
+        floyd = new FloydWinnerSelector(random);
+        shuffle = new ShuffleWinnerSelector(random);
+        
+        // BITMAP drafts: sparse ids, as left behind by deleted users
+        participantBitmap = new RoaringBitmap();
+        for (int i = 0; i < participants; i++) {
+            participantBitmap.add(i * 3);
+        }
+        participantBitmap.runOptimize();
+    }
+
+    // The pre-WinnerSelector implementation: copy the list and shuffle all of it
+    @Benchmark
+    public List<Long> listCopyAndShuffle() {
+        List<Long> copy = new ArrayList<>(participantList);
+        Collections.shuffle(copy, random);
+        return copy.subList(0, winners);
+    }
+
+    @Benchmark
+    public int[] shuffleSelector() {
+        return shuffle.select(participants, winners);
+    }
+
+    @Benchmark
+    public int[] floydSelector() {
+        return floyd.select(participants, winners);
+    }
+
+    // Winner positions resolved to user ids by rank, as DraftService does for BITMAP drafts
+    @Benchmark
+    public int[] floydOnBitmap() {
+        int[] positions = floyd.select(participantBitmap.getCardinality(), winners);
+        int[] ids = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            ids[i] = participantBitmap.select(positions[i]);
+        }
+        return ids;
+    }
+}
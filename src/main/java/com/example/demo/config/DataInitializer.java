@@ -3,6 +3,7 @@ package com.example.demo.config;
 import com.example.demo.model.User;
 import com.example.demo.model.Draft;
 import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.repository.UserJdbcRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.DraftRepository;
 import org.springframework.boot.CommandLineRunner;
@@ -17,11 +18,14 @@ import java.util.List;
 public class DataInitializer implements CommandLineRunner {
     
     private final UserRepository userRepository;
+    private final UserJdbcRepository userJdbcRepository;
     private final DraftRepository draftRepository;
     private final PasswordEncoder passwordEncoder;
     
-    public DataInitializer(UserRepository userRepository, DraftRepository draftRepository, PasswordEncoder passwordEncoder) {
+    public DataInitializer(UserRepository userRepository, UserJdbcRepository userJdbcRepository,
+                           DraftRepository draftRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
+        this.userJdbcRepository = userJdbcRepository;
         this.draftRepository = draftRepository;
         this.passwordEncoder = passwordEncoder;
     }
@@ -32,12 +36,16 @@ public class DataInitializer implements CommandLineRunner {
         if (userRepository.count() == 0) {
             System.out.println("Initializing sample users...");
             
-            // Create sample users
-            userRepository.save(new User("John Doe", "john.doe@example.com", passwordEncoder.encode("password123"), 28));
-            userRepository.save(new User("Jane Smith", "jane.smith@example.com", passwordEncoder.encode("password123"), 25));
-            userRepository.save(new User("Bob Johnson", "bob.johnson@example.com", passwordEncoder.encode("password123"), 32));
-            userRepository.save(new User("Alice Brown", "alice.brown@example.com", passwordEncoder.encode("password123"), 29));
-            userRepository.save(new User("Charlie Wilson", "charlie.wilson@example.com", passwordEncoder.encode("password123"), 35));
+            // Create sample users: hash in parallel, insert as one JDBC batch
+            List<User> sampleUsers = List.of(
+                new User("John Doe", "john.doe@example.com", "password123", 28),
+                new User("Jane Smith", "jane.smith@example.com", "password123", 25),
+                new User("Bob Johnson", "bob.johnson@example.com", "password123", 32),
+                new User("Alice Brown", "alice.brown@example.com", "password123", 29),
+                new User("Charlie Wilson", "charlie.wilson@example.com", "password123", 35)
+            );
+            sampleUsers.parallelStream().forEach(user -> user.setPassword(passwordEncoder.encode(user.getPassword())));
+            userJdbcRepository.insertUsers(sampleUsers);
             
             System.out.println("Sample users initialized successfully!");
         } else {
@@ -4,6 +4,7 @@ import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.LoginResponse;
 import com.example.demo.dto.UserRegistrationDto;
 import com.example.demo.model.User;
+import com.example.demo.security.TokenService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,10 +18,12 @@ import java.util.Optional;
 public class AuthController {
     
     private final UserService userService;
+    private final TokenService tokenService;
     
     @Autowired
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, TokenService tokenService) {
         this.userService = userService;
+        this.tokenService = tokenService;
     }
     
     @PostMapping("/register")
@@ -40,19 +43,22 @@ public class AuthController {
     
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> loginUser(@RequestBody LoginRequest loginRequest) {
-        boolean isAuthenticated = userService.authenticateUser(loginRequest.getEmail(), loginRequest.getPassword());
+        Optional<User> userOpt = userService.authenticate(loginRequest.getEmail(), loginRequest.getPassword());
         
-        if (isAuthenticated) {
-            Optional<User> userOpt = userService.findUserByEmail(loginRequest.getEmail());
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                return ResponseEntity.ok(new LoginResponse(
-                    "Login successful", 
-                    user.getId(), 
-                    user.getEmail(), 
-                    user.getName()
-                ));
-            }
+        if (userOpt.isPresent()) {
+            User user = userOpt.get();
+            LoginResponse response = new LoginResponse(
+                "Login successful", 
+                user.getId(), 
+                user.getEmail(), 
+                user.getName()
+            );
+            
+            // Clients send this as "Authorization: Bearer <token>" instead of Basic credentials
+            TokenService.IssuedToken token = tokenService.issue(user.getId(), user.getEmail());
+            response.setToken(token.token());
+            response.setExpiresAt(token.expiresAt());
+            return ResponseEntity.ok(response);
         }
         
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -1,27 +1,84 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.DraftBatchResult;
 import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.dto.DraftExecutionJob;
 import com.example.demo.dto.DraftResponse;
 import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.service.DraftEventBus;
+import com.example.demo.service.DraftExecutionJobService;
+import com.example.demo.service.DraftResponseCache;
+import com.example.demo.service.DraftResponseCache.CachedDraft;
 import com.example.demo.service.DraftService;
+import com.example.demo.service.IdempotencyService;
+import com.example.demo.service.ResourceVersions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/drafts")
 @CrossOrigin(origins = "*")
 public class DraftController {
     
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    // List endpoints return DraftSummary unless view=full is requested
+    private static final String VIEW_SUMMARY = "summary";
+    private static final String VIEW_FULL = "full";
+    
     @Autowired
     private DraftService draftService;
     
-    // Create a new draft
+    @Autowired
+    private DraftExecutionJobService executionJobService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private DraftResponseCache draftResponseCache;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private DraftEventBus draftEventBus;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Create a new draft; a repeated Idempotency-Key replays the first response
     @PostMapping
-    public ResponseEntity<?> createDraft(@RequestBody DraftCreateRequest request) {
+    public ResponseEntity<?> createDraft(@RequestBody DraftCreateRequest request,
+                                         @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                         Principal principal) {
+        String fingerprint;
+        try {
+            fingerprint = "POST /api/drafts " + objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+        return idempotencyService.execute(scopedKey(principal, idempotencyKey), fingerprint,
+                () -> doCreateDraft(request));
+    }
+    
+    private ResponseEntity<?> doCreateDraft(DraftCreateRequest request) {
         try {
             DraftResponse response = draftService.createDraft(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -33,23 +90,85 @@ public class DraftController {
         }
     }
     
-    // Get all drafts
+    // Create many drafts in one transaction; returns one compact result per item, in request order.
+    // 201 when every item was created, 207 when some were rejected (see each item's error).
+    @PostMapping("/batch")
+    public ResponseEntity<?> createDrafts(@RequestBody List<DraftCreateRequest> requests,
+                                          @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                          Principal principal) {
+        String fingerprint;
+        try {
+            fingerprint = "POST /api/drafts/batch " + objectMapper.writeValueAsString(requests);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+        return idempotencyService.execute(scopedKey(principal, idempotencyKey), fingerprint,
+                () -> doCreateDrafts(requests));
+    }
+    
+    private ResponseEntity<?> doCreateDrafts(List<DraftCreateRequest> requests) {
+        try {
+            List<DraftBatchResult> results = draftService.createDrafts(requests);
+            boolean allCreated = results.stream().allMatch(DraftBatchResult::isCreated);
+            return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error creating drafts: " + e.getMessage());
+        }
+    }
+    
+    // Get all drafts (keyset paginated, newest first; next page cursor in X-Next-Cursor / Link).
+    // Summaries by default; view=full includes participants and winners.
     @GetMapping
-    public ResponseEntity<List<DraftResponse>> getAllDrafts() {
+    public ResponseEntity<?> getAllDrafts(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+                                          WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.draftsETag())) {
+            return null;
+        }
         try {
-            List<DraftResponse> drafts = draftService.getAllDrafts();
-            return ResponseEntity.ok(drafts);
+            if (isFullView(view)) {
+                return pageResponse(draftService.getAllDrafts(cursor, size));
+            }
+            return pageResponse(draftService.getDraftSummaries(null, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
-    // Get draft by ID
+    // Server-sent events for draft creation and status changes ("draft" events with draftId, status and
+    // occurredAt). A client that falls too far behind gets an "overflow" event and should re-read via REST.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDraftEvents() {
+        try {
+            return ResponseEntity.ok(draftEventBus.subscribe());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+    
+    // Get draft by ID, served from the response cache when possible. The ETag comes from the draft's
+    // @Version alone, so a matching If-None-Match gets 304 without loading the draft.
     @GetMapping("/{id}")
-    public ResponseEntity<?> getDraftById(@PathVariable Long id) {
+    public ResponseEntity<?> getDraftById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            DraftResponse response = draftService.getDraftById(id);
-            return ResponseEntity.ok(response);
+            Optional<Long> version = draftService.findDraftVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = resourceVersions.draftETag(id, version.get());
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            CachedDraft draft = draftResponseCache.get(id, version.get(), draftService::getDraftById);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(draft.body());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -58,25 +177,89 @@ public class DraftController {
         }
     }
     
-    // Get drafts by status
+    // Get a draft's participants page by page, in id order (next page cursor in X-Next-Cursor / Link)
+    @GetMapping("/{id}/participants")
+    public ResponseEntity<?> getDraftParticipants(@PathVariable Long id,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.draftsETag())) {
+            return null;
+        }
+        try {
+            return pageResponse(draftService.getParticipants(id, cursor, size));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving participants: " + e.getMessage());
+        }
+    }
+    
+    // Membership check: 204 if the user takes part in the draft, 404 otherwise
+    @GetMapping("/{id}/participants/{userId}")
+    public ResponseEntity<?> checkParticipant(@PathVariable Long id, @PathVariable Long userId) {
+        try {
+            return draftService.isParticipant(id, userId)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error checking participant: " + e.getMessage());
+        }
+    }
+    
+    // Get drafts by status (keyset paginated like the full listing)
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getDraftsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getDraftsByStatus(@PathVariable String status,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+                                               WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.draftsETag())) {
+            return null;
+        }
+        DraftStatus draftStatus;
         try {
-            DraftStatus draftStatus = DraftStatus.valueOf(status.toUpperCase());
-            List<DraftResponse> drafts = draftService.getDraftsByStatus(draftStatus);
-            return ResponseEntity.ok(drafts);
+            draftStatus = DraftStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
-                    .body("Invalid status. Valid values are: PENDING, EXECUTED, CANCELLED");
+                    .body("Invalid status. Valid values are: PENDING, EXECUTING, EXECUTED, CANCELLED");
+        }
+        
+        try {
+            if (isFullView(view)) {
+                return pageResponse(draftService.getDraftsByStatus(draftStatus, cursor, size));
+            }
+            return pageResponse(draftService.getDraftSummaries(draftStatus, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error retrieving drafts: " + e.getMessage());
         }
     }
     
-    // Execute a draft (select winners)
+    // Execute a draft (select winners); async=true queues it and returns 202 with a job to poll.
+    // A repeated Idempotency-Key replays the first response instead of failing on the non-PENDING draft.
     @PostMapping("/{id}/execute")
-    public ResponseEntity<?> executeDraft(@PathVariable Long id) {
+    public ResponseEntity<?> executeDraft(@PathVariable Long id,
+                                          @RequestParam(defaultValue = "false") boolean async,
+                                          @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                          Principal principal) {
+        String fingerprint = "POST /api/drafts/" + id + "/execute?async=" + async;
+        return idempotencyService.execute(scopedKey(principal, idempotencyKey), fingerprint,
+                () -> doExecuteDraft(id, async));
+    }
+    
+    private ResponseEntity<?> doExecuteDraft(Long id, boolean async) {
+        if (async) {
+            return submitExecution(id);
+        }
         try {
             DraftResponse response = draftService.executeDraft(id);
             return ResponseEntity.ok(response);
@@ -90,6 +273,32 @@ public class DraftController {
         }
     }
     
+    // Get the status (and result, once finished) of an asynchronous execution
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<DraftExecutionJob> getExecutionJob(@PathVariable String jobId) {
+        return executionJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private ResponseEntity<?> submitExecution(Long id) {
+        try {
+            DraftExecutionJob job = executionJobService.submit(id);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/api/drafts/jobs/{jobId}")
+                            .buildAndExpand(job.getJobId())
+                            .toUri())
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body("Error: too many draft executions queued, retry later");
+        }
+    }
+    
     // Cancel a draft
     @PostMapping("/{id}/cancel")
     public ResponseEntity<?> cancelDraft(@PathVariable Long id) {
@@ -106,30 +315,79 @@ public class DraftController {
         }
     }
     
-    // Get drafts where a user is a participant
+    // Get drafts where a user is a participant, keyset paginated like the main list (summaries by default;
+    // view=full includes participants and winners)
     @GetMapping("/participant/{userId}")
-    public ResponseEntity<?> getDraftsByParticipant(@PathVariable Long userId) {
+    public ResponseEntity<?> getDraftsByParticipant(@PathVariable Long userId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+                                                    WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.draftsETag())) {
+            return null;
+        }
         try {
-            List<DraftResponse> drafts = draftService.getDraftsByParticipant(userId);
-            return ResponseEntity.ok(drafts);
+            if (isFullView(view)) {
+                return pageResponse(draftService.getDraftsByParticipant(userId, cursor, size));
+            }
+            return pageResponse(draftService.getDraftSummariesByParticipant(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error retrieving participant drafts: " + e.getMessage());
         }
     }
     
-    // Get drafts where a user is a winner
+    // Get drafts where a user is a winner, keyset paginated like the main list (summaries by default;
+    // view=full includes participants and winners)
     @GetMapping("/winner/{userId}")
-    public ResponseEntity<?> getDraftsByWinner(@PathVariable Long userId) {
+    public ResponseEntity<?> getDraftsByWinner(@PathVariable Long userId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = VIEW_SUMMARY) String view,
+                                               WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.draftsETag())) {
+            return null;
+        }
         try {
-            List<DraftResponse> drafts = draftService.getDraftsByWinner(userId);
-            return ResponseEntity.ok(drafts);
+            if (isFullView(view)) {
+                return pageResponse(draftService.getDraftsByWinner(userId, cursor, size));
+            }
+            return pageResponse(draftService.getDraftSummariesByWinner(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error retrieving winner drafts: " + e.getMessage());
         }
     }
     
+    // Idempotency keys are per user, so one client cannot replay another's responses
+    private String scopedKey(Principal principal, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        return (principal != null ? principal.getName() : "") + ":" + idempotencyKey;
+    }
+    
+    private boolean isFullView(String view) {
+        return VIEW_FULL.equalsIgnoreCase(view);
+    }
+    
+    // Body stays a plain JSON array; the cursor for the next page travels in headers
+    private <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                   .header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        }
+        return builder.body(page.items());
+    }
+    
     // Health check endpoint
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
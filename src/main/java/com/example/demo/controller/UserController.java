@@ -1,13 +1,29 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.User;
+import com.example.demo.service.ResourceVersions;
+import com.example.demo.service.UserImportService;
+import com.example.demo.service.UserImportService.ImportFormat;
 import com.example.demo.service.UserService;
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.UserRegistrationDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,26 +31,49 @@ import java.util.Optional;
 @RequestMapping("/api/users")
 public class UserController {
     
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions resourceVersions;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService, ObjectMapper objectMapper,
+                          ResourceVersions resourceVersions) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+        this.resourceVersions = resourceVersions;
     }
     
-    // Get all users
+    // Get users as id/name/email summaries, keyset paginated in id order; pass the X-Next-Cursor value
+    // back as ?cursor= for the next page (conditional GETs with a matching If-None-Match get 304)
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.usersETag())) {
+            return null;
+        }
+        try {
+            return pageResponse(userService.getUserSummaries(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
     
-    // Get user by ID
+    // Get user by ID; the ETag is this user's own, so changes to other users do not invalidate it
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<User> getUserById(@PathVariable Long id, WebRequest webRequest) {
         Optional<User> user = userService.getUserById(id);
-        return user.map(ResponseEntity::ok)
-                   .orElse(ResponseEntity.notFound().build());
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(resourceVersions.userETag(user.get()))) {
+            return null;
+        }
+        return ResponseEntity.ok(user.get());
     }
     
     // Create new user
@@ -70,10 +109,23 @@ public class UserController {
         }
     }
     
-    // Search users by name
+    // Typeahead search: ?name= matches names, ?q= matches names or emails; substring matches unless
+    // prefix=true. Results are in id order and capped by limit.
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
+    public ResponseEntity<?> searchUsers(@RequestParam(required = false) String name,
+                                         @RequestParam(required = false) String q,
+                                         @RequestParam(defaultValue = "false") boolean prefix,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest webRequest) {
+        if ((name == null) == (q == null)) {
+            return ResponseEntity.badRequest().body("Error: exactly one of 'name' or 'q' is required");
+        }
+        if (webRequest.checkNotModified(resourceVersions.usersETag())) {
+            return null;
+        }
+        List<User> users = name != null
+                ? userService.searchUsers(name, false, prefix, limit)
+                : userService.searchUsers(q, true, prefix, limit);
         return ResponseEntity.ok(users);
     }
     
@@ -81,11 +133,75 @@ public class UserController {
     @GetMapping("/age-range")
     public ResponseEntity<List<User>> getUsersByAgeRange(
             @RequestParam Integer minAge, 
-            @RequestParam Integer maxAge) {
+            @RequestParam Integer maxAge,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.usersETag())) {
+            return null;
+        }
         List<User> users = userService.getUsersByAgeRange(minAge, maxAge);
         return ResponseEntity.ok(users);
     }
     
+    // Ids of users in an age range, keyset paginated by (age, id); cursor in X-Next-Cursor
+    @GetMapping("/age-range/ids")
+    public ResponseEntity<?> getUserIdsByAgeRange(@RequestParam Integer minAge,
+                                                  @RequestParam Integer maxAge,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.usersETag())) {
+            return null;
+        }
+        try {
+            return pageResponse(userService.getUserIdsByAgeRange(minAge, maxAge, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    // Users per age bucket (bucketSize ages each), served from memory
+    @GetMapping("/age-histogram")
+    public ResponseEntity<?> getAgeHistogram(@RequestParam(defaultValue = "10") int bucketSize,
+                                             WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersions.usersETag())) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok(userService.getAgeHistogram(bucketSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
+    // Bulk import users from CSV (header row: name,email,password[,age]) or NDJSON (one registration object
+    // per line). The body is consumed as a stream and running totals are streamed back as NDJSON after
+    // every batch; the last line has "done": true.
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImportFormat format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? ImportFormat.CSV : ImportFormat.NDJSON;
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType("application/x-ndjson");
+        try {
+            userImportService.importUsers(new InputStreamReader(request.getInputStream(), charset), format, progress -> {
+                try {
+                    response.getWriter().write(objectMapper.writeValueAsString(progress) + "\n");
+                    response.getWriter().flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            // Unreadable input is detected before the first progress line is written
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Error: " + e.getMessage());
+        }
+    }
+    
     // Register new user (alternative endpoint)
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody UserRegistrationDto registrationDto) {
@@ -96,4 +212,17 @@ public class UserController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+    
+    // Body stays a plain JSON array; the cursor for the next page travels in headers
+    private <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            builder.header(DraftController.NEXT_CURSOR_HEADER, page.nextCursor())
+                   .header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"");
+        }
+        return builder.body(page.items());
+    }
 }
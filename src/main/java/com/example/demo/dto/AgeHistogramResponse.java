@@ -0,0 +1,93 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Users per age bucket (GET /api/users/age-histogram); empty buckets are omitted
+public class AgeHistogramResponse {
+    private int bucketSize;
+    private long total;
+    private long unknownAge;
+    private List<Bucket> buckets = new ArrayList<>();
+    
+    // Constructors
+    public AgeHistogramResponse() {}
+    
+    public AgeHistogramResponse(int bucketSize, long total, long unknownAge) {
+        this.bucketSize = bucketSize;
+        this.total = total;
+        this.unknownAge = unknownAge;
+    }
+    
+    // Getters and Setters
+    public int getBucketSize() {
+        return bucketSize;
+    }
+    
+    public void setBucketSize(int bucketSize) {
+        this.bucketSize = bucketSize;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getUnknownAge() {
+        return unknownAge;
+    }
+    
+    public void setUnknownAge(long unknownAge) {
+        this.unknownAge = unknownAge;
+    }
+    
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+    
+    public void setBuckets(List<Bucket> buckets) {
+        this.buckets = buckets;
+    }
+    
+    // Inclusive age range and the number of users in it
+    public static class Bucket {
+        private int minAge;
+        private int maxAge;
+        private long count;
+        
+        public Bucket() {}
+        
+        public Bucket(int minAge, int maxAge, long count) {
+            this.minAge = minAge;
+            this.maxAge = maxAge;
+            this.count = count;
+        }
+        
+        public int getMinAge() {
+            return minAge;
+        }
+        
+        public void setMinAge(int minAge) {
+            this.minAge = minAge;
+        }
+        
+        public int getMaxAge() {
+            return maxAge;
+        }
+        
+        public void setMaxAge(int maxAge) {
+            this.maxAge = maxAge;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Compact per-item outcome of POST /api/drafts/batch; index refers to the position in the request array
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DraftBatchResult {
+    private int index;
+    private Long id;
+    private Integer participantCount;
+    private String error;
+    
+    // Constructors
+    public DraftBatchResult() {}
+    
+    public static DraftBatchResult created(int index, Long id, int participantCount) {
+        DraftBatchResult result = new DraftBatchResult();
+        result.index = index;
+        result.id = id;
+        result.participantCount = participantCount;
+        return result;
+    }
+    
+    public static DraftBatchResult failed(int index, String error) {
+        DraftBatchResult result = new DraftBatchResult();
+        result.index = index;
+        result.error = error;
+        return result;
+    }
+    
+    @JsonIgnore
+    public boolean isCreated() {
+        return error == null;
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Integer getParticipantCount() {
+        return participantCount;
+    }
+    
+    public void setParticipantCount(Integer participantCount) {
+        this.participantCount = participantCount;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
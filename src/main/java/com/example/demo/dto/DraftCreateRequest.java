@@ -1,5 +1,7 @@
 package com.example.demo.dto;
 
+import com.example.demo.model.Draft.ParticipantMode;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class DraftCreateRequest {
@@ -7,6 +9,9 @@ public class DraftCreateRequest {
     private String description;
     private Integer numberOfWinners;
     private List<Long> participantIds; // Optional: specific participants, or null for all users
+    private LocalDateTime scheduledAt; // Optional: execute automatically at this time
+    private ParticipantMode participantMode; // Optional: JOIN_TABLE (default) or BITMAP for very large draws
+    private EligibilityRules eligibility; // Optional: enroll only matching users (instead of participantIds)
     
     // Constructors
     public DraftCreateRequest() {}
@@ -50,4 +55,28 @@ public class DraftCreateRequest {
     public void setParticipantIds(List<Long> participantIds) {
         this.participantIds = participantIds;
     }
+    
+    public LocalDateTime getScheduledAt() {
+        return scheduledAt;
+    }
+    
+    public void setScheduledAt(LocalDateTime scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+    
+    public ParticipantMode getParticipantMode() {
+        return participantMode;
+    }
+    
+    public void setParticipantMode(ParticipantMode participantMode) {
+        this.participantMode = participantMode;
+    }
+    
+    public EligibilityRules getEligibility() {
+        return eligibility;
+    }
+    
+    public void setEligibility(EligibilityRules eligibility) {
+        this.eligibility = eligibility;
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Draft.DraftStatus;
+import java.time.Instant;
+
+// Pushed to GET /api/drafts/stream subscribers whenever a draft is created or changes status
+public record DraftEvent(Long draftId, DraftStatus status, Instant occurredAt) {}
@@ -0,0 +1,74 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Status of an asynchronous draft execution, polled via /api/drafts/jobs/{jobId}
+public class DraftExecutionJob {
+    
+    public enum JobStatus {
+        QUEUED,     // Waiting for a free execution worker
+        RUNNING,    // Winners are being drawn
+        SUCCEEDED,  // Draft executed; result holds the response
+        FAILED      // Execution failed; error holds the reason
+    }
+    
+    private final String jobId;
+    private final Long draftId;
+    private final LocalDateTime submittedAt;
+    private volatile JobStatus status;
+    private volatile LocalDateTime completedAt;
+    private volatile DraftResponse result;
+    private volatile String error;
+    
+    public DraftExecutionJob(String jobId, Long draftId) {
+        this.jobId = jobId;
+        this.draftId = draftId;
+        this.submittedAt = LocalDateTime.now();
+        this.status = JobStatus.QUEUED;
+    }
+    
+    public void markRunning() {
+        this.status = JobStatus.RUNNING;
+    }
+    
+    public void markSucceeded(DraftResponse result) {
+        this.result = result;
+        this.completedAt = LocalDateTime.now();
+        this.status = JobStatus.SUCCEEDED;
+    }
+    
+    public void markFailed(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = JobStatus.FAILED;
+    }
+    
+    // Getters
+    public String getJobId() {
+        return jobId;
+    }
+    
+    public Long getDraftId() {
+        return draftId;
+    }
+    
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public JobStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public DraftResponse getResult() {
+        return result;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
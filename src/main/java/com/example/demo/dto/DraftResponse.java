@@ -1,6 +1,9 @@
 package com.example.demo.dto;
 
 import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.model.Draft.ParticipantMode;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -12,6 +15,16 @@ public class DraftResponse {
     private DraftStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime executedAt;
+    private LocalDateTime scheduledAt;
+    private Integer participantCount;
+    private ParticipantMode participantMode;
+    
+    // Entity @Version, used for the ETag rather than sent in the body
+    @JsonIgnore
+    private Long version;
+    
+    // Omitted when only the count is returned (e.g. right after executing a large draft)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<UserDto> participants;
     private List<UserDto> winners;
     
@@ -129,6 +142,38 @@ public class DraftResponse {
         this.executedAt = executedAt;
     }
     
+    public LocalDateTime getScheduledAt() {
+        return scheduledAt;
+    }
+    
+    public void setScheduledAt(LocalDateTime scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public ParticipantMode getParticipantMode() {
+        return participantMode;
+    }
+    
+    public void setParticipantMode(ParticipantMode participantMode) {
+        this.participantMode = participantMode;
+    }
+    
+    public Integer getParticipantCount() {
+        return participantCount;
+    }
+    
+    public void setParticipantCount(Integer participantCount) {
+        this.participantCount = participantCount;
+    }
+    
     public List<UserDto> getParticipants() {
         return participants;
     }
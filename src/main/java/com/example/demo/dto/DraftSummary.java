@@ -0,0 +1,108 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Draft.DraftStatus;
+import java.time.LocalDateTime;
+
+// Lightweight list view of a draft: counts instead of participant/winner payloads
+public class DraftSummary {
+    private Long id;
+    private String title;
+    private DraftStatus status;
+    private Integer numberOfWinners;
+    private Integer participantCount;
+    private Integer winnerCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime executedAt;
+    private LocalDateTime scheduledAt;
+    
+    // Constructors
+    public DraftSummary() {}
+    
+    // Used by the JPQL constructor expressions in DraftRepository
+    public DraftSummary(Long id, String title, DraftStatus status, Integer numberOfWinners,
+                        Integer participantCount, Integer winnerCount,
+                        LocalDateTime createdAt, LocalDateTime executedAt, LocalDateTime scheduledAt) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.numberOfWinners = numberOfWinners;
+        this.participantCount = participantCount;
+        this.winnerCount = winnerCount;
+        this.createdAt = createdAt;
+        this.executedAt = executedAt;
+        this.scheduledAt = scheduledAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public DraftStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(DraftStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getNumberOfWinners() {
+        return numberOfWinners;
+    }
+    
+    public void setNumberOfWinners(Integer numberOfWinners) {
+        this.numberOfWinners = numberOfWinners;
+    }
+    
+    public Integer getParticipantCount() {
+        return participantCount;
+    }
+    
+    public void setParticipantCount(Integer participantCount) {
+        this.participantCount = participantCount;
+    }
+    
+    public Integer getWinnerCount() {
+        return winnerCount;
+    }
+    
+    public void setWinnerCount(Integer winnerCount) {
+        this.winnerCount = winnerCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExecutedAt() {
+        return executedAt;
+    }
+    
+    public void setExecutedAt(LocalDateTime executedAt) {
+        this.executedAt = executedAt;
+    }
+    
+    public LocalDateTime getScheduledAt() {
+        return scheduledAt;
+    }
+    
+    public void setScheduledAt(LocalDateTime scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.dto;
+
+// Who may take part in a draft, evaluated in the database when the draft is created.
+// Every rule is optional; the rules that are set must all match.
+public class EligibilityRules {
+    private Integer minAge; // Inclusive; users without an age never match an age rule
+    private Integer maxAge; // Inclusive
+    // A SQL LIKE pattern, not a literal: % matches any run, _ one character, and \% \_ \\ match
+    // those characters themselves. Case-insensitive, matched against the whole name.
+    private String namePattern;
+    // Skip anyone who has ever won a draft, in any status and however long ago
+    private Boolean excludePreviousWinners;
+    
+    // Constructors
+    public EligibilityRules() {}
+    
+    public EligibilityRules(Integer minAge, Integer maxAge, String namePattern, Boolean excludePreviousWinners) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.namePattern = namePattern;
+        this.excludePreviousWinners = excludePreviousWinners;
+    }
+    
+    // Getters and Setters
+    public Integer getMinAge() {
+        return minAge;
+    }
+    
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+    
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+    
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+    
+    public String getNamePattern() {
+        return namePattern;
+    }
+    
+    public void setNamePattern(String namePattern) {
+        this.namePattern = namePattern;
+    }
+    
+    public Boolean getExcludePreviousWinners() {
+        return excludePreviousWinners;
+    }
+    
+    public void setExcludePreviousWinners(Boolean excludePreviousWinners) {
+        this.excludePreviousWinners = excludePreviousWinners;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.demo.dto;
 
+import java.time.Instant;
+
 public class LoginResponse {
     private String message;
     private Long userId;
     private String email;
     private String name;
+    private String token;
+    private Instant expiresAt;
     
     // Default constructor
     public LoginResponse() {}
@@ -49,4 +53,20 @@ public class LoginResponse {
     public void setName(String name) {
         this.name = name;
     }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 }
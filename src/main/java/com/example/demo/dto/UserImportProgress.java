@@ -0,0 +1,78 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Running totals of a bulk user import, streamed to the client after every batch
+public class UserImportProgress {
+    private long processed;  // Data rows read so far
+    private long imported;   // Users inserted
+    private long duplicates; // Skipped: email already registered or repeated in the file
+    private long invalid;    // Skipped: missing or malformed fields
+    private boolean done;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;    // Set when the import stopped early; rows up to the last committed batch are kept
+    private List<String> errors = new ArrayList<>(); // First few row errors, "line N: message"
+    
+    // Constructors
+    public UserImportProgress() {}
+    
+    // Getters and Setters
+    public long getProcessed() {
+        return processed;
+    }
+    
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+    
+    public long getDuplicates() {
+        return duplicates;
+    }
+    
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+    
+    public long getInvalid() {
+        return invalid;
+    }
+    
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+    
+    public boolean isDone() {
+        return done;
+    }
+    
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
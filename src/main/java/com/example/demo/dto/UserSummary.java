@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+// Lightweight list view of a user for pickers: no age, no password hash, no entity
+public class UserSummary {
+    private Long id;
+    private String name;
+    private String email;
+    
+    // Constructors
+    public UserSummary() {}
+    
+    // Used by the JPQL constructor expressions in UserRepository
+    public UserSummary(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -2,12 +2,20 @@ package com.example.demo.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "drafts")
+@Table(name = "drafts", indexes = {
+    @Index(name = "idx_drafts_created_at_id", columnList = "createdAt, id"),
+    @Index(name = "idx_drafts_status_created_at_id", columnList = "status, createdAt, id"),
+    @Index(name = "idx_drafts_status_scheduled_at", columnList = "status, scheduledAt"),
+    // Finds the BITMAP drafts to probe for "drafts a user takes part in"
+    @Index(name = "idx_drafts_participant_mode_created_at_id", columnList = "participantMode, createdAt, id")
+})
 public class Draft {
     
     @Id
@@ -29,16 +37,53 @@ public class Draft {
     @Column
     private LocalDateTime executedAt;
     
+    // When set, the draft scheduler executes the draft automatically once this time has passed
+    @Column
+    private LocalDateTime scheduledAt;
+    
+    // Stored as VARCHAR rather than a native enum type so new statuses need no column change
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private DraftStatus status;
     
+    // When the current EXECUTING claim was taken; claims older than the execution lease are handed
+    // back to PENDING by DraftScheduler, so a process that dies mid-draw does not strand the draft
+    @Column
+    private LocalDateTime executionClaimedAt;
+    
+    // Optimistic lock; also bumped by the status compare-and-set updates in DraftRepository
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
+    // How participants are stored: draft_participants rows, or the compressed bitmap below
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20, columnDefinition = "varchar(20) default 'JOIN_TABLE'")
+    private ParticipantMode participantMode = ParticipantMode.JOIN_TABLE;
+    
+    // Serialized Roaring bitmap of participant user ids (BITMAP mode only)
+    @Lob
+    @JsonIgnore
+    @Column(name = "participant_bitmap")
+    private byte[] participantBitmap;
+    
+    // Participant count kept alongside the bitmap (BITMAP mode only; join table drafts count their rows)
+    @Column
+    private Integer participantCount;
+    
     // Many-to-many relationship with User for winners
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "draft_winners",
         joinColumns = @JoinColumn(name = "draft_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = {
+            @Index(name = "idx_draft_winners_draft_user", columnList = "draft_id, user_id"),
+            // Reverse index for "drafts won by user" lookups
+            @Index(name = "idx_draft_winners_user_draft", columnList = "user_id, draft_id")
+        }
     )
     private List<User> winners = new ArrayList<>();
     
@@ -47,12 +92,23 @@ public class Draft {
     @JoinTable(
         name = "draft_participants",
         joinColumns = @JoinColumn(name = "draft_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = {
+            @Index(name = "idx_draft_participants_draft_user", columnList = "draft_id, user_id"),
+            // Reverse index for "drafts a user takes part in" lookups
+            @Index(name = "idx_draft_participants_user_draft", columnList = "user_id, draft_id")
+        }
     )
     private List<User> participants = new ArrayList<>();
     
+    public enum ParticipantMode {
+        JOIN_TABLE, // One draft_participants row per participant
+        BITMAP      // Compressed bitmap of user ids on the draft row; for very large draws
+    }
+    
     public enum DraftStatus {
         PENDING,    // Draft created but not executed
+        EXECUTING,  // Winners are being drawn; claimed by exactly one executor
         EXECUTED,   // Draft has been run and winners selected
         CANCELLED   // Draft was cancelled
     }
@@ -119,6 +175,54 @@ public class Draft {
         this.executedAt = executedAt;
     }
     
+    public LocalDateTime getScheduledAt() {
+        return scheduledAt;
+    }
+    
+    public void setScheduledAt(LocalDateTime scheduledAt) {
+        this.scheduledAt = scheduledAt;
+    }
+    
+    public LocalDateTime getExecutionClaimedAt() {
+        return executionClaimedAt;
+    }
+    
+    public void setExecutionClaimedAt(LocalDateTime executionClaimedAt) {
+        this.executionClaimedAt = executionClaimedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public ParticipantMode getParticipantMode() {
+        return participantMode;
+    }
+    
+    public void setParticipantMode(ParticipantMode participantMode) {
+        this.participantMode = participantMode;
+    }
+    
+    public byte[] getParticipantBitmap() {
+        return participantBitmap;
+    }
+    
+    public void setParticipantBitmap(byte[] participantBitmap) {
+        this.participantBitmap = participantBitmap;
+    }
+    
+    public Integer getParticipantCount() {
+        return participantCount;
+    }
+    
+    public void setParticipantCount(Integer participantCount) {
+        this.participantCount = participantCount;
+    }
+    
     public DraftStatus getStatus() {
         return status;
     }
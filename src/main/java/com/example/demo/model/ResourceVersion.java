@@ -0,0 +1,35 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+// Persisted change counter behind the ETags of one resource collection ("drafts", "users").
+// Written and read through ResourceVersions with plain SQL; mapped here so the schema is generated.
+@Entity
+@Table(name = "resource_versions")
+public class ResourceVersion {
+    
+    @Id
+    @Column(length = 32)
+    private String name;
+    
+    @Column(nullable = false)
+    private long version;
+    
+    public ResourceVersion() {}
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Age-range filters and their (age, id) keyset pages
+    @Index(name = "idx_users_age_id", columnList = "age, id")
+})
 public class User {
     
     @Id
@@ -0,0 +1,90 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Draft;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+// Bulk writes of draft rows, bypassing the persistence context
+@Repository
+public class DraftJdbcRepository {
+    
+    private static final String INSERT_DRAFT =
+            "INSERT INTO drafts (title, description, number_of_winners, status, created_at, scheduled_at, "
+            + "participant_mode, participant_bitmap, participant_count, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public DraftJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    // Insert all drafts as a single JDBC batch; returns the generated ids in input order
+    public long[] insertDrafts(List<Draft> drafts) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_DRAFT, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Draft draft = drafts.get(i);
+                        ps.setString(1, draft.getTitle());
+                        ps.setString(2, draft.getDescription());
+                        ps.setInt(3, draft.getNumberOfWinners());
+                        ps.setString(4, draft.getStatus().name());
+                        ps.setTimestamp(5, Timestamp.valueOf(draft.getCreatedAt()));
+                        if (draft.getScheduledAt() != null) {
+                            ps.setTimestamp(6, Timestamp.valueOf(draft.getScheduledAt()));
+                        } else {
+                            ps.setNull(6, Types.TIMESTAMP);
+                        }
+                        ps.setString(7, draft.getParticipantMode().name());
+                        if (draft.getParticipantBitmap() != null) {
+                            ps.setBytes(8, draft.getParticipantBitmap());
+                        } else {
+                            ps.setNull(8, Types.BLOB);
+                        }
+                        if (draft.getParticipantCount() != null) {
+                            ps.setInt(9, draft.getParticipantCount());
+                        } else {
+                            ps.setNull(9, Types.INTEGER);
+                        }
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return drafts.size();
+                    }
+                },
+                keyHolder);
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != drafts.size()) {
+            throw new IllegalStateException("Expected " + drafts.size() + " generated ids but got " + keys.size());
+        }
+        long[] ids = new long[keys.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) keys.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+    
+    // Bump the @Version of every draft a user participates in or has won, in one statement; their bodies
+    // embed the user's name and email. Returns the number of drafts bumped. A draw in flight on one of them
+    // fails its optimistic-lock check and is released, so it can simply be executed again.
+    public int bumpVersionsOfDraftsByUser(Long userId) {
+        return jdbcTemplate.update("UPDATE drafts SET version = version + 1 WHERE id IN ("
+                + "SELECT draft_id FROM draft_participants WHERE user_id = ? "
+                + "UNION SELECT draft_id FROM draft_winners WHERE user_id = ?)", userId, userId);
+    }
+}
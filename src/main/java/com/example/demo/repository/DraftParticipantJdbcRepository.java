@@ -0,0 +1,233 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.EligibilityRules;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+// Set-based access to the draft_participants / draft_winners join tables.
+// Works on plain user ids so large draws never hydrate User entities.
+@Repository
+public class DraftParticipantJdbcRepository {
+    
+    private static final int FETCH_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public DraftParticipantJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    // All participant ids of a draft, in id order, as a primitive array
+    public long[] findParticipantIds(Long draftId) {
+        LongArrayBuilder ids = new LongArrayBuilder();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT user_id FROM draft_participants WHERE draft_id = ? ORDER BY user_id");
+            statement.setLong(1, draftId);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            ids.add(rs.getLong(1));
+        });
+        return ids.toArray();
+    }
+    
+    // Whether a user is enrolled in a join-table draft; answered from the (draft_id, user_id) index
+    public boolean isParticipant(Long draftId, Long userId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM draft_participants WHERE draft_id = ? AND user_id = ?",
+                Integer.class, draftId, userId);
+        return count != null && count > 0;
+    }
+    
+    // Ids of every draft a user participates in or has won
+    public long[] findDraftIdsByUser(Long userId) {
+        LongArrayBuilder ids = new LongArrayBuilder();
+        jdbcTemplate.query(
+                "SELECT draft_id FROM draft_participants WHERE user_id = ? UNION SELECT draft_id FROM draft_winners WHERE user_id = ?",
+                rs -> {
+                    ids.add(rs.getLong(1));
+                },
+                userId, userId);
+        return ids.toArray();
+    }
+    
+    // BITMAP drafts whose participant bitmap contains the user, newest first. Each stored bitmap is probed
+    // in place without deserializing it, but every BITMAP draft is read, so the cost grows with the number
+    // of BITMAP drafts (a mode meant for a few very large draws).
+    public List<BitmapDraft> findBitmapDraftsContaining(int userId) {
+        List<BitmapDraft> drafts = new ArrayList<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, created_at, participant_bitmap FROM drafts WHERE participant_mode = 'BITMAP' "
+                    + "ORDER BY created_at DESC, id DESC");
+            statement.setFetchSize(100);
+            return statement;
+        }, rs -> {
+            byte[] bitmap = rs.getBytes(3);
+            if (bitmap != null && bitmap.length > 0
+                    && new ImmutableRoaringBitmap(ByteBuffer.wrap(bitmap)).contains(userId)) {
+                drafts.add(new BitmapDraft(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()));
+            }
+        });
+        return drafts;
+    }
+    
+    // Keyset position of a BITMAP draft
+    public record BitmapDraft(Long id, LocalDateTime createdAt) {}
+    
+    // Enroll every user in a draft with one set-based INSERT ... SELECT; returns the number enrolled
+    public int insertAllUsersAsParticipants(Long draftId) {
+        return jdbcTemplate.update(
+                "INSERT INTO draft_participants (draft_id, user_id) SELECT ?, id FROM users", draftId);
+    }
+    
+    // Enroll every user matching the rules in a draft with one INSERT ... SELECT; returns the number enrolled
+    public int insertEligibleParticipants(Long draftId, EligibilityRules rules) {
+        EligibilityFilter filter = EligibilityFilter.compile(rules);
+        List<Object> args = new ArrayList<>(filter.args().size() + 1);
+        args.add(draftId);
+        args.addAll(filter.args());
+        return jdbcTemplate.update("INSERT INTO draft_participants (draft_id, user_id) SELECT ?, u.id FROM users u"
+                + filter.where(), args.toArray());
+    }
+    
+    // Number of users matching the rules (validates batch items before anything is written)
+    public int countEligibleUsers(EligibilityRules rules) {
+        EligibilityFilter filter = EligibilityFilter.compile(rules);
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users u" + filter.where(),
+                Integer.class, filter.args().toArray());
+        return count != null ? count : 0;
+    }
+    
+    // Stream the ids of users matching the rules in id order (participant bitmaps)
+    public void forEachEligibleUserId(EligibilityRules rules, LongConsumer consumer) {
+        EligibilityFilter filter = EligibilityFilter.compile(rules);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT u.id FROM users u" + filter.where() + " ORDER BY u.id");
+            for (int i = 0; i < filter.args().size(); i++) {
+                statement.setObject(i + 1, filter.args().get(i));
+            }
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getLong(1));
+        });
+    }
+    
+    // Enroll every user in each of the given drafts; one batched INSERT ... SELECT per draft, one round trip.
+    // Returns the rows inserted per draft (Statement.SUCCESS_NO_INFO where the driver does not report them).
+    public int[] insertAllUsersAsParticipants(long[] draftIds) {
+        return jdbcTemplate.batchUpdate("INSERT INTO draft_participants (draft_id, user_id) SELECT ?, id FROM users",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, draftIds[i]);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return draftIds.length;
+                    }
+                });
+    }
+    
+    // Enroll (draftIds[i], userIds[i]) pairs across many drafts as a single JDBC batch
+    public void insertParticipants(long[] draftIds, long[] userIds) {
+        jdbcTemplate.batchUpdate("INSERT INTO draft_participants (draft_id, user_id) VALUES (?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, draftIds[i]);
+                        ps.setLong(2, userIds[i]);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return userIds.length;
+                    }
+                });
+    }
+    
+    // Enroll the given users in a draft as a single JDBC batch
+    public void insertParticipants(Long draftId, long[] userIds) {
+        insertJoinRows("INSERT INTO draft_participants (draft_id, user_id) VALUES (?, ?)", draftId, userIds);
+    }
+    
+    // Insert winner rows for a draft as a single JDBC batch
+    public void insertWinners(Long draftId, long[] userIds) {
+        insertJoinRows("INSERT INTO draft_winners (draft_id, user_id) VALUES (?, ?)", draftId, userIds);
+    }
+    
+    private void insertJoinRows(String sql, Long draftId, long[] userIds) {
+        jdbcTemplate.batchUpdate(sql,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, draftId);
+                        ps.setLong(2, userIds[i]);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return userIds.length;
+                    }
+                });
+    }
+    
+    // WHERE clause over "users u" and its bind values. Age rules read idx_users_age_id and the winner
+    // exclusion probes idx_draft_winners_user_draft, so no rule needs a pass over users in the JVM.
+    private record EligibilityFilter(String where, List<Object> args) {
+        
+        static EligibilityFilter compile(EligibilityRules rules) {
+            StringBuilder where = new StringBuilder();
+            List<Object> args = new ArrayList<>();
+            if (rules.getMinAge() != null) {
+                where.append(where.isEmpty() ? " WHERE " : " AND ").append("u.age >= ?");
+                args.add(rules.getMinAge());
+            }
+            if (rules.getMaxAge() != null) {
+                where.append(where.isEmpty() ? " WHERE " : " AND ").append("u.age <= ?");
+                args.add(rules.getMaxAge());
+            }
+            if (rules.getNamePattern() != null) {
+                where.append(where.isEmpty() ? " WHERE " : " AND ").append("LOWER(u.name) LIKE LOWER(?) ESCAPE '\\'");
+                args.add(rules.getNamePattern());
+            }
+            if (Boolean.TRUE.equals(rules.getExcludePreviousWinners())) {
+                where.append(where.isEmpty() ? " WHERE " : " AND ")
+                     .append("NOT EXISTS (SELECT 1 FROM draft_winners w WHERE w.user_id = u.id)");
+            }
+            return new EligibilityFilter(where.toString(), args);
+        }
+    }
+    
+    // Growable long[] so reading a million ids does not box a million Longs
+    private static final class LongArrayBuilder {
+        private long[] values = new long[1024];
+        private int size;
+        
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        }
+        
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -1,17 +1,38 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.DraftResponse;
+import com.example.demo.dto.DraftSummary;
 import com.example.demo.model.Draft;
 import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.model.Draft.ParticipantMode;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DraftRepository extends JpaRepository<Draft, Long> {
     
+    // Select clause shared by the summary projections; counts come from the join-table indexes,
+    // or from the stored count for BITMAP drafts
+    String SUMMARY_SELECT = "SELECT new com.example.demo.dto.DraftSummary(" +
+            "d.id, d.title, d.status, d.numberOfWinners, COALESCE(d.participantCount, SIZE(d.participants)), SIZE(d.winners), " +
+            "d.createdAt, d.executedAt, d.scheduledAt) FROM Draft d ";
+    
+    // BITMAP drafts write no join rows, so their stored count stands in for SIZE(d.participants)
+    String HAS_PARTICIPANTS = "(d.participantCount > 0 OR SIZE(d.participants) > 0)";
+    
     // Find all drafts by status
     List<Draft> findByStatus(DraftStatus status);
     
@@ -21,18 +42,136 @@ public interface DraftRepository extends JpaRepository<Draft, Long> {
     // Find drafts by status ordered by creation date
     List<Draft> findByStatusOrderByCreatedAtDesc(DraftStatus status);
     
+    // Keyset pagination on (createdAt, id), newest first; backed by idx_drafts_created_at_id
+    @Query("SELECT d FROM Draft d ORDER BY d.createdAt DESC, d.id DESC")
+    List<Draft> findFirstPage(Pageable pageable);
+    
+    @Query("SELECT d FROM Draft d WHERE d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Draft> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Keyset pagination within one status; backed by idx_drafts_status_created_at_id
+    @Query("SELECT d FROM Draft d WHERE d.status = :status ORDER BY d.createdAt DESC, d.id DESC")
+    List<Draft> findFirstPageByStatus(@Param("status") DraftStatus status, Pageable pageable);
+    
+    @Query("SELECT d FROM Draft d WHERE d.status = :status " +
+           "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Draft> findPageByStatusAfter(@Param("status") DraftStatus status, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
+    
+    // Summary projections of the same keyset pages, without loading participants or winners
+    @Query(SUMMARY_SELECT + "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findFirstSummaryPage(Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                            Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE d.status = :status ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findFirstSummaryPageByStatus(@Param("status") DraftStatus status, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE d.status = :status " +
+           "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findSummaryPageByStatusAfter(@Param("status") DraftStatus status,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id, Pageable pageable);
+    
+    // Summaries of the given drafts, unordered (merged into per-user pages)
+    @Query(SUMMARY_SELECT + "WHERE d.id IN :ids")
+    List<DraftSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Per-user summary pages: the join is driven by the (user_id, draft_id) reverse indexes
+    @Query(SUMMARY_SELECT + "JOIN d.participants p WHERE p.id = :userId ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findFirstSummaryPageByParticipant(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "JOIN d.participants p WHERE p.id = :userId " +
+           "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findSummaryPageByParticipantAfter(@Param("userId") Long userId,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "JOIN d.winners w WHERE w.id = :userId ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findFirstSummaryPageByWinner(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "JOIN d.winners w WHERE w.id = :userId " +
+           "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<DraftSummary> findSummaryPageByWinnerAfter(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT d.participantMode FROM Draft d WHERE d.id = :id")
+    Optional<ParticipantMode> findParticipantMode(@Param("id") Long id);
+    
+    // The draft's @Version alone, for conditional GETs that can be answered without loading the draft
+    @Query("SELECT d.version FROM Draft d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT d.participantBitmap FROM Draft d WHERE d.id = :id")
+    byte[] findParticipantBitmap(@Param("id") Long id);
+    
+    // Participants of one draft in id order, seeked past the last id seen; reads (draft_id, user_id) index
+    @Query("SELECT new com.example.demo.dto.DraftResponse$UserDto(u.id, u.name, u.email) " +
+           "FROM Draft d JOIN d.participants u WHERE d.id = :draftId AND u.id > :afterId ORDER BY u.id")
+    List<DraftResponse.UserDto> findParticipantPage(@Param("draftId") Long draftId, @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+    
+    // Atomic compare-and-set of a draft's status; returns 1 only for the caller that won the transition
+    @Modifying
+    @Query("UPDATE Draft d SET d.status = :to, d.version = d.version + 1 WHERE d.id = :id AND d.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") DraftStatus from, @Param("to") DraftStatus to);
+    
+    // Claim a pending draft for execution, stamping the claim time (the claim's identity and lease start)
+    @Modifying
+    @Query("UPDATE Draft d SET d.status = 'EXECUTING', d.executionClaimedAt = :claimedAt, d.version = d.version + 1 " +
+           "WHERE d.id = :id AND d.status = 'PENDING'")
+    int claimExecution(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+    
+    // Hand a claim back to PENDING, but only the claim taken at claimedAt (not one taken since by someone else)
+    @Modifying
+    @Query("UPDATE Draft d SET d.status = 'PENDING', d.executionClaimedAt = NULL, d.version = d.version + 1 " +
+           "WHERE d.id = :id AND d.status = 'EXECUTING' AND d.executionClaimedAt = :claimedAt")
+    int releaseExecution(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+    
+    // EXECUTING drafts whose claim is older than the cutoff (or predates claim timestamps)
+    @Query("SELECT d.id FROM Draft d WHERE d.status = 'EXECUTING' " +
+           "AND (d.executionClaimedAt < :cutoff OR d.executionClaimedAt IS NULL)")
+    List<Long> findStaleExecutionIds(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("UPDATE Draft d SET d.status = 'PENDING', d.executionClaimedAt = NULL, d.version = d.version + 1 " +
+           "WHERE d.id = :id AND d.status = 'EXECUTING' " +
+           "AND (d.executionClaimedAt < :cutoff OR d.executionClaimedAt IS NULL)")
+    int releaseStaleExecution(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff);
+    
     // Count drafts by status
     long countByStatus(DraftStatus status);
     
-    // Find drafts where a specific user is a participant
-    @Query("SELECT d FROM Draft d JOIN d.participants p WHERE p.id = :userId")
-    List<Draft> findDraftsByParticipantId(@Param("userId") Long userId);
+    // Initialize participants of already loaded drafts in one query (avoids N+1 on list endpoints)
+    @Query("SELECT DISTINCT d FROM Draft d LEFT JOIN FETCH d.participants WHERE d IN :drafts")
+    List<Draft> fetchParticipants(@Param("drafts") List<Draft> drafts);
     
-    // Find drafts where a specific user is a winner
-    @Query("SELECT d FROM Draft d JOIN d.winners w WHERE w.id = :userId")
-    List<Draft> findDraftsByWinnerId(@Param("userId") Long userId);
+    // Initialize winners of already loaded drafts in one query
+    @Query("SELECT DISTINCT d FROM Draft d LEFT JOIN FETCH d.winners WHERE d IN :drafts")
+    List<Draft> fetchWinners(@Param("drafts") List<Draft> drafts);
     
-    // Find all pending drafts with participant count
-    @Query("SELECT d FROM Draft d WHERE d.status = 'PENDING' AND SIZE(d.participants) > 0")
+    // Find all pending drafts with participants (join-table rows, or a non-empty bitmap)
+    @Query("SELECT d FROM Draft d WHERE d.status = 'PENDING' AND " + HAS_PARTICIPANTS)
     List<Draft> findPendingDraftsWithParticipants();
+    
+    // Ids of pending drafts whose schedule is due, oldest first; backed by idx_drafts_status_scheduled_at
+    @Query("SELECT d.id FROM Draft d WHERE d.status = 'PENDING' AND d.scheduledAt <= :now " +
+           "AND " + HAS_PARTICIPANTS + " ORDER BY d.scheduledAt, d.id")
+    List<Long> findDueDraftIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Row-lock a draft that is still pending; SKIP LOCKED (timeout -2) on databases that support it,
+    // so concurrent schedulers move on to other drafts instead of queueing behind each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM Draft d WHERE d.id = :id AND d.status = 'PENDING'")
+    Optional<Draft> lockPendingDraft(@Param("id") Long id);
 }
@@ -0,0 +1,154 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// Set-based access to the users table for bulk import and seeding
+@Repository
+public class UserJdbcRepository {
+    
+    private static final int FETCH_SIZE = 10_000;
+    // Longest IN list sent in one statement; larger id sets are queried chunk by chunk
+    private static final int IN_LIST_CHUNK = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    // Which of the given emails are already registered, one query per IN_LIST_CHUNK emails
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        forEachChunk(emails, chunk -> jdbcTemplate.query(
+                "SELECT email FROM users WHERE email IN (" + placeholders(chunk.size()) + ")",
+                rs -> {
+                    existing.add(rs.getString(1));
+                },
+                chunk.toArray()));
+        return existing;
+    }
+    
+    // Which of the given user ids exist, one query per IN_LIST_CHUNK ids so a large participant list
+    // never becomes a single statement with an unbounded number of bind parameters
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        forEachChunk(ids, chunk -> jdbcTemplate.query(
+                "SELECT id FROM users WHERE id IN (" + placeholders(chunk.size()) + ")",
+                rs -> {
+                    existing.add(rs.getLong(1));
+                },
+                chunk.toArray()));
+        return existing;
+    }
+    
+    private static <T> void forEachChunk(Collection<T> values, Consumer<List<T>> action) {
+        List<T> chunk = new ArrayList<>(Math.min(values.size(), IN_LIST_CHUNK));
+        for (T value : values) {
+            chunk.add(value);
+            if (chunk.size() == IN_LIST_CHUNK) {
+                action.accept(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            action.accept(chunk);
+        }
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+    
+    // Number of users per age in one aggregate query; users without an age are counted under a null key
+    public Map<Integer, Long> countUsersByAge() {
+        Map<Integer, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT age, COUNT(*) FROM users GROUP BY age", rs -> {
+            int age = rs.getInt(1);
+            counts.put(rs.wasNull() ? null : age, rs.getLong(2));
+        });
+        return counts;
+    }
+    
+    // Stream every user id without materializing a list (builds "all users" participant bitmaps)
+    public void forEachUserId(LongConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id FROM users ORDER BY id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getLong(1));
+        });
+    }
+    
+    // Stream id, name, email and age of every user in id order (builds the in-memory search index)
+    public void forEachUser(Consumer<User> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, name, email, age FROM users ORDER BY id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            int age = rs.getInt(4);
+            User user = new User(rs.getString(2), rs.getString(3), rs.wasNull() ? null : age);
+            user.setId(rs.getLong(1));
+            consumer.accept(user);
+        });
+    }
+    
+    // Insert users (with already encoded passwords) as a single JDBC batch; returns the generated ids in input order
+    public long[] insertUsers(List<User> users) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                        "INSERT INTO users (name, email, password, age) VALUES (?, ?, ?, ?)", new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        User user = users.get(i);
+                        ps.setString(1, user.getName());
+                        ps.setString(2, user.getEmail());
+                        ps.setString(3, user.getPassword());
+                        if (user.getAge() != null) {
+                            ps.setInt(4, user.getAge());
+                        } else {
+                            ps.setNull(4, Types.INTEGER);
+                        }
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                },
+                keyHolder);
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != users.size()) {
+            throw new IllegalStateException("Expected " + users.size() + " generated ids but got " + keys.size());
+        }
+        long[] ids = new long[keys.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) keys.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.DraftResponse;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +19,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find user by email
     Optional<User> findByEmail(String email);
     
-    // Find users by name containing (case insensitive)
-    List<User> findByNameContainingIgnoreCase(String name);
+    // Id/name/email of the given users in id order (participant pages of BITMAP drafts)
+    @Query("SELECT new com.example.demo.dto.DraftResponse$UserDto(u.id, u.name, u.email) " +
+           "FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<DraftResponse.UserDto> findUserDtosByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Keyset pages of the user listing: id/name/email only, in id order
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.name, u.email) FROM User u ORDER BY u.id")
+    List<UserSummary> findFirstSummaryPage(Pageable pageable);
+    
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.name, u.email) FROM User u " +
+           "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummaryPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Name/email searches (case insensitive, limited); only used while the in-memory search index is warming
+    List<User> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    
+    List<User> findByNameStartingWithIgnoreCase(String name, Pageable pageable);
+    
+    List<User> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String name, String email, Pageable pageable);
+    
+    List<User> findByNameStartingWithIgnoreCaseOrEmailStartingWithIgnoreCase(String name, String email,
+                                                                            Pageable pageable);
+    
+    // Keyset pages of (age, id) keys in an age range, read from idx_users_age_id
+    @Query("SELECT new com.example.demo.repository.UserRepository$AgeKey(u.age, u.id) FROM User u " +
+           "WHERE u.age BETWEEN :minAge AND :maxAge ORDER BY u.age, u.id")
+    List<AgeKey> findFirstAgeKeyPage(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge,
+                                     Pageable pageable);
+    
+    @Query("SELECT new com.example.demo.repository.UserRepository$AgeKey(u.age, u.id) FROM User u " +
+           "WHERE u.age BETWEEN :afterAge AND :maxAge AND u.age >= :minAge " +
+           "AND (u.age > :afterAge OR u.id > :afterId) ORDER BY u.age, u.id")
+    List<AgeKey> findAgeKeyPageAfter(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge,
+                                     @Param("afterAge") Integer afterAge, @Param("afterId") Long afterId,
+                                     Pageable pageable);
     
     // Find users by age greater than
     List<User> findByAgeGreaterThan(Integer age);
@@ -23,4 +61,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Custom query example
     @Query("SELECT u FROM User u WHERE u.age BETWEEN ?1 AND ?2")
     List<User> findUsersByAgeBetween(Integer minAge, Integer maxAge);
+    
+    record AgeKey(Integer age, Long id) {}
 }
@@ -0,0 +1,99 @@
+package com.example.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+// Bounded, TTL-evicting cache of already verified HTTP Basic credentials.
+// Entries are keyed by an HMAC of "username:password" under a per-process random key,
+// so neither the raw password nor a reusable hash of it is ever kept in memory.
+@Component
+public class CredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, CachedAuthentication> cache;
+    private final SecretKeySpec hmacKey;
+
+    public CredentialCache(@Value("${app.security.credential-cache.ttl:5m}") Duration ttl,
+                           @Value("${app.security.credential-cache.max-size:10000}") long maxSize,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credentials");
+    }
+
+    // Look up a previously verified authentication for these credentials
+    public Authentication get(String username, String password) {
+        CachedAuthentication cached = cache.getIfPresent(key(username, password));
+        return cached != null ? cached.authentication() : null;
+    }
+
+    // Remember a successful authentication for these credentials
+    public void put(String username, String password, Authentication authentication) {
+        cache.put(key(username, password), new CachedAuthentication(username, authentication));
+    }
+
+    // Drop every cached entry for a user (password change, email change, deletion)
+    public void evict(String username) {
+        if (username != null) {
+            cache.asMap().values().removeIf(cached -> username.equals(cached.username()));
+        }
+    }
+
+    // Evict once the surrounding transaction (if any) has committed; an eviction before the commit
+    // lets a concurrent login re-cache the old credentials from the not yet replaced row
+    public void evictAfterCommit(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        } else {
+            evict(username);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private String key(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    private record CachedAuthentication(String username, Authentication authentication) {}
+}
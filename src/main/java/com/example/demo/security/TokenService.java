@@ -0,0 +1,158 @@
+package com.example.demo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Issues and verifies compact HMAC-signed bearer tokens:
+//   base64url("v2:<userId>:<issuedAt>:<expiresAt>:<email>") + "." + base64url(HMAC-SHA256)
+// with epoch-millisecond timestamps. Verification is pure CPU work: no database access and no BCrypt.
+@Service
+public class TokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v2";
+    // HMAC-SHA256 keys shorter than the hash output weaken the signature
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private final SecretKeySpec signingKey;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // Tokens issued at or before these instants are rejected (user updated or deleted on this instance).
+    // Entries older than the token TTL are pruned: every token they could reject has expired anyway.
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenService(@Value("${app.security.token.secret:}") String secret,
+                        @Value("${app.security.token.ttl:1h}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration ttl, Clock clock) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // Fine for a single instance; set app.security.token.secret to share tokens across instances
+            log.warn("No app.security.token.secret configured, using a random per-process signing key.");
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException(
+                        "app.security.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+            }
+        }
+        this.signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public IssuedToken issue(Long userId, String email) {
+        Instant issuedAt = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+        Instant expiresAt = issuedAt.plus(ttl);
+        String payload = VERSION + ":" + userId + ":" + issuedAt.toEpochMilli() + ":"
+                + expiresAt.toEpochMilli() + ":" + email;
+        String encodedPayload = encode(payload.getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(encodedPayload + "." + encode(sign(encodedPayload)), expiresAt);
+    }
+
+    public Optional<TokenClaims> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+
+        String encodedPayload = token.substring(0, dot);
+        byte[] signature;
+        String payload;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            payload = new String(Base64.getUrlDecoder().decode(encodedPayload), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(encodedPayload), signature)) {
+            return Optional.empty();
+        }
+
+        // The email is last so it may itself contain ':'
+        String[] parts = payload.split(":", 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            return Optional.empty();
+        }
+        try {
+            TokenClaims claims = new TokenClaims(
+                    Long.parseLong(parts[1]),
+                    parts[4],
+                    Instant.ofEpochMilli(Long.parseLong(parts[2])),
+                    Instant.ofEpochMilli(Long.parseLong(parts[3])));
+            if (!clock.instant().isBefore(claims.expiresAt())) {
+                return Optional.empty();
+            }
+            Instant revoked = revokedBefore.get(claims.email());
+            // A token issued in the same millisecond as the revocation may predate it, so it goes too
+            if (revoked != null && !claims.issuedAt().isAfter(revoked)) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Invalidate every token already issued for this email
+    public void revoke(String email) {
+        if (email != null) {
+            // Token timestamps have millisecond precision
+            Instant now = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+            revokedBefore.put(email, now);
+            Instant cutoff = now.minus(ttl);
+            revokedBefore.values().removeIf(revoked -> revoked.isBefore(cutoff));
+        }
+    }
+
+    int revokedCount() {
+        return revokedBefore.size();
+    }
+
+    private byte[] sign(String encodedPayload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {}
+
+    public record TokenClaims(Long userId, String email, Instant issuedAt, Instant expiresAt) {}
+}
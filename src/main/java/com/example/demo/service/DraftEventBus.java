@@ -0,0 +1,198 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DraftEvent;
+import com.example.demo.model.Draft.DraftStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process fan-out of draft events to server-sent-event subscribers.
+// Publishing never blocks: each subscriber has a bounded buffer that drops its oldest events when the
+// client falls behind (it is then sent an "overflow" event and should re-read via the REST API).
+// A small shared dispatcher pool drains the buffers, at most one task per subscriber at a time, so
+// thousands of idle connections cost no threads and no database polling.
+@Component
+public class DraftEventBus {
+    
+    private static final String DRAFT_EVENT = "draft";
+    private static final String OVERFLOW_EVENT = "overflow";
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Counter droppedEvents;
+    
+    public DraftEventBus(@Value("${app.draft.events.dispatcher-threads:2}") int dispatcherThreads,
+                         @Value("${app.draft.events.buffer-size:256}") int bufferSize,
+                         @Value("${app.draft.events.max-subscribers:10000}") int maxSubscribers,
+                         @Value("${app.draft.events.timeout:30m}") Duration timeout,
+                         MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        
+        // Unbounded queue is fine here: each subscriber has at most one drain task queued
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "draft-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        Gauge.builder("draft.events.subscribers", subscribers, Set::size)
+                .description("Connected draft event stream subscribers")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("draft.events.dropped")
+                .description("Draft events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+    }
+    
+    // Register a new stream subscriber; throws RejectedExecutionException when at capacity
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+    
+    // Same, for an emitter the caller created (tests observe what is sent through it)
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many draft event subscribers");
+        }
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+    
+    // Publish a draft status change once the current transaction commits (immediately when there is none);
+    // rolled back changes are never announced
+    public void publishAfterCommit(Long draftId, DraftStatus status) {
+        DraftEvent event = new DraftEvent(draftId, status, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+    
+    public void publish(DraftEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(event);
+            schedule(subscriber);
+        }
+    }
+    
+    // Comment-only keep-alive so proxies keep idle streams open and dead clients are detected
+    @Scheduled(fixedDelayString = "${app.draft.events.heartbeat:15s}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            long dropped = subscriber.dropped.getAndSet(0);
+            if (dropped > 0) {
+                subscriber.emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(dropped));
+            }
+            DraftEvent event;
+            boolean sent = false;
+            while ((event = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(DRAFT_EVENT)
+                        .id(event.draftId() + "-" + event.status())
+                        .data(event, MediaType.APPLICATION_JSON));
+                sent = true;
+            }
+            if (subscriber.heartbeatDue && !sent) {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            subscriber.heartbeatDue = false;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // Events published while we were finishing up must not wait for the next publish
+        if (!subscriber.buffer.isEmpty() || subscriber.dropped.get() > 0) {
+            schedule(subscriber);
+        }
+    }
+    
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<DraftEvent> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean heartbeatDue;
+        
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+        
+        // Drop-oldest: a slow client loses stale events, never the newest state
+        void enqueue(DraftEvent event) {
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                    droppedEvents.increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DraftExecutionJob;
+import com.example.demo.repository.DraftRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs draft executions off the request thread on bounded worker pools.
+// app.draft.execution.concurrency caps parallel draws requested through the API; a full queue rejects new jobs.
+// Scheduled drafts run on a separate pool (app.draft.scheduler.*), so a burst of due drafts cannot fill
+// the queue that /execute?async=true depends on.
+@Service
+public class DraftExecutionJobService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DraftExecutionJobService.class);
+    
+    private final DraftService draftService;
+    private final DraftRepository draftRepository;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor scheduledExecutor;
+    private final Cache<String, DraftExecutionJob> jobs;
+    
+    public DraftExecutionJobService(DraftService draftService,
+                                    DraftRepository draftRepository,
+                                    @Value("${app.draft.execution.concurrency:4}") int concurrency,
+                                    @Value("${app.draft.execution.queue-capacity:100}") int queueCapacity,
+                                    @Value("${app.draft.execution.job-retention:1h}") Duration jobRetention,
+                                    @Value("${app.draft.execution.max-jobs:10000}") long maxJobs,
+                                    @Value("${app.draft.scheduler.concurrency:2}") int scheduledConcurrency,
+                                    @Value("${app.draft.scheduler.queue-capacity:50}") int scheduledQueueCapacity) {
+        this.draftService = draftService;
+        this.draftRepository = draftRepository;
+        this.executor = boundedPool("draft-exec-", concurrency, queueCapacity);
+        this.scheduledExecutor = boundedPool("draft-scheduled-", scheduledConcurrency, scheduledQueueCapacity);
+        
+        // Finished jobs are only kept long enough to be polled, and never more than max-jobs of them
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobRetention)
+                .maximumSize(maxJobs)
+                .build();
+    }
+    
+    // Queue a draft for execution; throws RejectedExecutionException when the queue is full
+    public DraftExecutionJob submit(Long draftId) {
+        if (!draftRepository.existsById(draftId)) {
+            throw new IllegalArgumentException("Draft not found with ID: " + draftId);
+        }
+        
+        DraftExecutionJob job = new DraftExecutionJob(UUID.randomUUID().toString(), draftId);
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getJobId());
+            throw e;
+        }
+        return job;
+    }
+    
+    // Queue a due scheduled draft on the scheduled pool; onDone runs whatever the outcome.
+    // Throws RejectedExecutionException when that pool's queue is full.
+    public void submitScheduled(Long draftId, Runnable onDone) {
+        scheduledExecutor.execute(() -> {
+            try {
+                draftService.executeScheduledDraft(draftId);
+            } catch (Exception e) {
+                log.warn("Scheduled execution of draft {} failed", draftId, e);
+            } finally {
+                onDone.run();
+            }
+        });
+    }
+    
+    public Optional<DraftExecutionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+    
+    private void run(DraftExecutionJob job) {
+        job.markRunning();
+        try {
+            job.markSucceeded(draftService.executeDraft(job.getDraftId()));
+        } catch (Exception e) {
+            job.markFailed(e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        scheduledExecutor.shutdown();
+    }
+    
+    private static ThreadPoolExecutor boundedPool(String threadPrefix, int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DraftResponse;
+import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.repository.DraftParticipantJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Function;
+
+// Read-through cache of serialized GET /api/drafts/{id} bodies, bounded by total bytes (W-TinyLFU).
+// Entries are keyed on the draft's @Version alone. Executed and cancelled drafts no longer change, so their
+// entries do not expire. Pending and executing drafts expire after a short TTL: changes on this instance evict
+// them after commit, and changes made through another instance are caught by the version check in get() or at
+// the latest when the entry expires.
+@Component
+public class DraftResponseCache {
+    
+    private final Cache<Long, CachedDraft> cache;
+    private final ObjectMapper objectMapper;
+    private final DraftParticipantJdbcRepository participantJdbcRepository;
+    
+    public DraftResponseCache(@Value("${app.draft.response-cache.max-size:64MB}") DataSize maxSize,
+                              @Value("${app.draft.response-cache.non-terminal-ttl:5s}") Duration nonTerminalTtl,
+                              ObjectMapper objectMapper,
+                              DraftParticipantJdbcRepository participantJdbcRepository,
+                              MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.participantJdbcRepository = participantJdbcRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, CachedDraft draft) -> draft.body().length)
+                .expireAfter(new Expiry<Long, CachedDraft>() {
+                    @Override
+                    public long expireAfterCreate(Long id, CachedDraft draft, long currentTime) {
+                        return draft.terminal() ? Long.MAX_VALUE : nonTerminalTtl.toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(Long id, CachedDraft draft, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, draft, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(Long id, CachedDraft draft, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "draftResponses");
+        Gauge.builder("draft.response.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Hit ratio of the draft detail response cache")
+                .register(meterRegistry);
+    }
+    
+    // Serialized response for a draft, loading and caching it on a miss. Loads run inside the cache's
+    // per-key compute, so an eviction racing with a load waits for it and removes the stale result.
+    // An entry rendered from another version than currentVersion predates a change (possibly made through
+    // another instance) and is reloaded; nothing else invalidates an entry, terminal or not.
+    public CachedDraft get(Long draftId, long currentVersion, Function<Long, DraftResponse> loader) {
+        CachedDraft cached = cache.getIfPresent(draftId);
+        if (cached != null && cached.version() != currentVersion) {
+            cache.asMap().remove(draftId, cached);
+        }
+        return cache.get(draftId, id -> {
+            DraftResponse response = loader.apply(id);
+            boolean terminal = response.getStatus() == DraftStatus.EXECUTED || response.getStatus() == DraftStatus.CANCELLED;
+            return new CachedDraft(serialize(response), response.getVersion(), terminal);
+        });
+    }
+    
+    // Evict a draft once the current transaction commits (immediately when there is none)
+    public void evictAfterCommit(Long draftId) {
+        runAfterCommit(() -> cache.invalidate(draftId));
+    }
+    
+    // Evict every draft a user takes part in or has won; their names and emails are embedded in the bodies
+    public void evictDraftsOfUser(Long userId) {
+        long[] draftIds = participantJdbcRepository.findDraftIdsByUser(userId);
+        runAfterCommit(() -> {
+            for (long draftId : draftIds) {
+                cache.invalidate(draftId);
+            }
+        });
+    }
+    
+    public void clear() {
+        cache.invalidateAll();
+    }
+    
+    private void runAfterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+        // Also evict now so readers outside the transaction stop seeing the old body straight away
+        eviction.run();
+    }
+    
+    public record CachedDraft(byte[] body, long version, boolean terminal) {}
+    
+    private byte[] serialize(DraftResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+// Polls for due scheduled drafts and hands them to the bounded scheduled-execution pool.
+// Each poll takes at most batch-size drafts, so a burst of drafts due at the same moment
+// is worked off over consecutive polls instead of all at once. Double execution across
+// instances is prevented by the row lock taken in DraftService.executeScheduledDraft.
+// It also reaps EXECUTING claims older than the execution lease, left by a process that died mid-draw.
+@Component
+@ConditionalOnProperty(name = "app.draft.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class DraftScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(DraftScheduler.class);
+    
+    private final DraftService draftService;
+    private final DraftExecutionJobService executionJobService;
+    private final int batchSize;
+    
+    // Drafts already queued on this instance, so a slow draw is not queued twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    
+    public DraftScheduler(DraftService draftService,
+                          DraftExecutionJobService executionJobService,
+                          @Value("${app.draft.scheduler.batch-size:50}") int batchSize) {
+        this.draftService = draftService;
+        this.executionJobService = executionJobService;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.draft.scheduler.poll-interval:5s}")
+    public void executeDueDrafts() {
+        List<Long> dueDraftIds = draftService.findDueDraftIds(batchSize);
+        for (Long draftId : dueDraftIds) {
+            if (!inFlight.add(draftId)) {
+                continue;
+            }
+            try {
+                executionJobService.submitScheduled(draftId, () -> inFlight.remove(draftId));
+            } catch (RejectedExecutionException e) {
+                // Pool is saturated; the remaining drafts are picked up by a later poll
+                inFlight.remove(draftId);
+                return;
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.draft.execution.reaper-interval:1m}")
+    public void releaseStaleExecutions() {
+        List<Long> released = draftService.releaseStaleExecutions();
+        if (!released.isEmpty()) {
+            log.warn("Released stale execution claims on drafts {}", released);
+        }
+    }
+}
@@ -1,39 +1,304 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.DraftBatchResult;
 import com.example.demo.dto.DraftCreateRequest;
 import com.example.demo.dto.DraftResponse;
+import com.example.demo.dto.DraftSummary;
+import com.example.demo.dto.EligibilityRules;
 import com.example.demo.model.Draft;
 import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.model.Draft.ParticipantMode;
 import com.example.demo.model.User;
+import com.example.demo.repository.DraftJdbcRepository;
+import com.example.demo.repository.DraftParticipantJdbcRepository;
+import com.example.demo.repository.DraftParticipantJdbcRepository.BitmapDraft;
 import com.example.demo.repository.DraftRepository;
+import com.example.demo.repository.UserJdbcRepository;
 import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DraftService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int DEFAULT_PARTICIPANT_PAGE_SIZE = 100;
+    public static final int MAX_PARTICIPANT_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int MAX_NAME_PATTERN_LENGTH = 255;
+    
     @Autowired
     private DraftRepository draftRepository;
     
     @Autowired
     private UserRepository userRepository;
     
-    private final SecureRandom secureRandom = new SecureRandom();
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+    
+    @Autowired
+    private DraftParticipantJdbcRepository participantJdbcRepository;
+    
+    @Autowired
+    private DraftJdbcRepository draftJdbcRepository;
+    
+    @Autowired
+    private DraftResponseCache draftResponseCache;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private DraftEventBus draftEventBus;
+    
+    @Autowired
+    private WinnerSelector winnerSelector;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    // How long an EXECUTING claim may stay open before it is considered abandoned
+    @Value("${app.draft.execution.lease:10m}")
+    private Duration executionLease;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     // Create a new draft
     public DraftResponse createDraft(DraftCreateRequest request) {
-        // Validate request
+        // Validate request and create draft entity
+        Draft draft = newDraft(request, LocalDateTime.now());
+        
+        // Validate an explicit participant list with one id query per chunk of the list
+        long[] participantIds = null;
+        if (request.getParticipantIds() != null && !request.getParticipantIds().isEmpty()) {
+            Set<Long> distinctIds = new LinkedHashSet<>(request.getParticipantIds());
+            if (distinctIds.contains(null) || userJdbcRepository.findExistingIds(distinctIds).size() != distinctIds.size()) {
+                throw new IllegalArgumentException("Some participant IDs are invalid");
+            }
+            participantIds = distinctIds.stream().mapToLong(Long::longValue).toArray();
+            validateWinnerCount(request.getNumberOfWinners(), participantIds.length);
+        }
+        
+        EligibilityRules rules = request.getEligibility();
+        
+        // BITMAP drafts keep participants in a compressed bitmap on the draft row; no join rows are written
+        if (draft.getParticipantMode() == ParticipantMode.BITMAP) {
+            RoaringBitmap bitmap = participantIds != null ? ParticipantBitmaps.of(participantIds)
+                    : rules != null ? eligibleUsersBitmap(rules) : allUsersBitmap();
+            validateWinnerCount(request.getNumberOfWinners(), bitmap.getCardinality());
+            draft.setParticipantCount(bitmap.getCardinality());
+            draft.setParticipantBitmap(ParticipantBitmaps.serialize(bitmap));
+        }
+        
+        // Save draft
+        Draft savedDraft = draftRepository.save(draft);
+        
+        // Write join rows set-based instead of one INSERT per participant
+        int participantCount;
+        if (savedDraft.getParticipantMode() == ParticipantMode.BITMAP) {
+            participantCount = savedDraft.getParticipantCount();
+        } else if (participantIds != null) {
+            // Use specified participants
+            participantJdbcRepository.insertParticipants(savedDraft.getId(), participantIds);
+            participantCount = participantIds.length;
+        } else if (rules != null) {
+            // Filter and enroll in the database; a failed check rolls the insert back
+            participantCount = participantJdbcRepository.insertEligibleParticipants(savedDraft.getId(), rules);
+            validateWinnerCount(request.getNumberOfWinners(), participantCount);
+        } else {
+            // Use all users as participants; a failed check rolls the insert back
+            participantCount = participantJdbcRepository.insertAllUsersAsParticipants(savedDraft.getId());
+            validateWinnerCount(request.getNumberOfWinners(), participantCount);
+        }
+        
+        resourceVersions.draftsChanged();
+        draftEventBus.publishAfterCommit(savedDraft.getId(), DraftStatus.PENDING);
+        return convertToCountedResponse(savedDraft, new ArrayList<>(), participantCount);
+    }
+    
+    // Create many drafts in one transaction: participant ids for the whole batch are validated with
+    // one set query, and drafts and join rows are written as JDBC batches. Invalid items are reported
+    // per item and skipped; the valid ones are created together.
+    public List<DraftBatchResult> createDrafts(List<DraftCreateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one draft");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " drafts");
+        }
+        
+        // One set query (chunked) for every participant id referenced anywhere in the batch
+        Set<Long> referencedIds = new HashSet<>();
+        for (DraftCreateRequest request : requests) {
+            if (request != null && request.getParticipantIds() != null) {
+                request.getParticipantIds().stream().filter(Objects::nonNull).forEach(referencedIds::add);
+            }
+        }
+        Set<Long> existingIds = referencedIds.isEmpty()
+                ? Set.of()
+                : userJdbcRepository.findExistingIds(referencedIds);
+        Long allUsersCount = null;
+        byte[] allUsersBitmap = null;
+        int allUsersBitmapCount = 0;
+        
+        LocalDateTime now = LocalDateTime.now();
+        DraftBatchResult[] results = new DraftBatchResult[requests.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Draft> drafts = new ArrayList<>();
+        List<long[]> participantIdsPerDraft = new ArrayList<>();
+        List<EligibilityRules> rulesPerDraft = new ArrayList<>();
+        int[] participantCounts = new int[requests.size()];
+        
+        for (int i = 0; i < requests.size(); i++) {
+            DraftCreateRequest request = requests.get(i);
+            try {
+                if (request == null) {
+                    throw new IllegalArgumentException("Draft request cannot be null");
+                }
+                Draft draft = newDraft(request, now);
+                EligibilityRules rules = request.getEligibility();
+                long[] participantIds = null;
+                if (request.getParticipantIds() != null && !request.getParticipantIds().isEmpty()) {
+                    Set<Long> distinctIds = new LinkedHashSet<>(request.getParticipantIds());
+                    if (distinctIds.contains(null) || !existingIds.containsAll(distinctIds)) {
+                        throw new IllegalArgumentException("Some participant IDs are invalid");
+                    }
+                    participantIds = distinctIds.stream().mapToLong(Long::longValue).toArray();
+                    participantCounts[i] = participantIds.length;
+                    if (draft.getParticipantMode() == ParticipantMode.BITMAP) {
+                        draft.setParticipantBitmap(ParticipantBitmaps.serialize(ParticipantBitmaps.of(participantIds)));
+                        draft.setParticipantCount(participantIds.length);
+                        participantIds = null;
+                    }
+                } else if (rules != null) {
+                    // Counted up front so the item can fail before anything is written
+                    if (draft.getParticipantMode() == ParticipantMode.BITMAP) {
+                        RoaringBitmap bitmap = eligibleUsersBitmap(rules);
+                        draft.setParticipantBitmap(ParticipantBitmaps.serialize(bitmap));
+                        draft.setParticipantCount(bitmap.getCardinality());
+                        participantCounts[i] = bitmap.getCardinality();
+                        rules = null;
+                    } else {
+                        participantCounts[i] = participantJdbcRepository.countEligibleUsers(rules);
+                    }
+                } else if (draft.getParticipantMode() == ParticipantMode.BITMAP) {
+                    // Every "all users" bitmap in the batch shares one snapshot
+                    if (allUsersBitmap == null) {
+                        RoaringBitmap bitmap = allUsersBitmap();
+                        allUsersBitmapCount = bitmap.getCardinality();
+                        allUsersBitmap = ParticipantBitmaps.serialize(bitmap);
+                    }
+                    draft.setParticipantBitmap(allUsersBitmap);
+                    draft.setParticipantCount(allUsersBitmapCount);
+                    participantCounts[i] = allUsersBitmapCount;
+                } else {
+                    // Only validates the winner count; the reported count comes from the insert below
+                    if (allUsersCount == null) {
+                        allUsersCount = userRepository.count();
+                    }
+                    participantCounts[i] = allUsersCount.intValue();
+                }
+                validateWinnerCount(request.getNumberOfWinners(), participantCounts[i]);
+                
+                validIndexes.add(i);
+                drafts.add(draft);
+                participantIdsPerDraft.add(participantIds);
+                rulesPerDraft.add(rules);
+            } catch (IllegalArgumentException e) {
+                results[i] = DraftBatchResult.failed(i, e.getMessage());
+            }
+        }
+        
+        if (!drafts.isEmpty()) {
+            long[] draftIds = draftJdbcRepository.insertDrafts(drafts);
+            
+            // Flatten explicit participant lists into one batch of (draft, user) rows
+            int rowCount = participantIdsPerDraft.stream().filter(Objects::nonNull).mapToInt(ids -> ids.length).sum();
+            long[] rowDraftIds = new long[rowCount];
+            long[] rowUserIds = new long[rowCount];
+            long[] allUsersDraftIds = new long[drafts.size()];
+            int[] allUsersIndexes = new int[drafts.size()];
+            int row = 0;
+            int allUsersDrafts = 0;
+            for (int d = 0; d < drafts.size(); d++) {
+                long[] participantIds = participantIdsPerDraft.get(d);
+                if (drafts.get(d).getParticipantMode() == ParticipantMode.BITMAP) {
+                    continue;
+                }
+                if (rulesPerDraft.get(d) != null) {
+                    // Rules differ per draft, so each gets its own INSERT ... SELECT
+                    participantCounts[validIndexes.get(d)] =
+                            participantJdbcRepository.insertEligibleParticipants(draftIds[d], rulesPerDraft.get(d));
+                    continue;
+                }
+                if (participantIds == null) {
+                    allUsersIndexes[allUsersDrafts] = validIndexes.get(d);
+                    allUsersDraftIds[allUsersDrafts++] = draftIds[d];
+                    continue;
+                }
+                Arrays.fill(rowDraftIds, row, row + participantIds.length, draftIds[d]);
+                System.arraycopy(participantIds, 0, rowUserIds, row, participantIds.length);
+                row += participantIds.length;
+            }
+            if (rowCount > 0) {
+                participantJdbcRepository.insertParticipants(rowDraftIds, rowUserIds);
+            }
+            if (allUsersDrafts > 0) {
+                int[] enrolled = participantJdbcRepository.insertAllUsersAsParticipants(
+                        Arrays.copyOf(allUsersDraftIds, allUsersDrafts));
+                // Users created or deleted since the count above are reflected in what was actually inserted
+                for (int a = 0; a < allUsersDrafts; a++) {
+                    if (enrolled[a] >= 0) {
+                        participantCounts[allUsersIndexes[a]] = enrolled[a];
+                    }
+                }
+            }
+            
+            resourceVersions.draftsChanged();
+            for (int d = 0; d < drafts.size(); d++) {
+                draftEventBus.publishAfterCommit(draftIds[d], DraftStatus.PENDING);
+                int index = validIndexes.get(d);
+                results[index] = DraftBatchResult.created(index, draftIds[d], participantCounts[index]);
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    // Validate a create request and build the (unsaved) PENDING draft for it
+    private Draft newDraft(DraftCreateRequest request, LocalDateTime createdAt) {
         if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("Draft title cannot be empty");
         }
@@ -42,87 +307,245 @@ public class DraftService {
             throw new IllegalArgumentException("Number of winners must be greater than 0");
         }
         
-        // Create draft entity
+        if (request.getEligibility() != null) {
+            validateEligibility(request);
+        }
+        
         Draft draft = new Draft();
         draft.setTitle(request.getTitle().trim());
         draft.setDescription(request.getDescription() != null ? request.getDescription().trim() : "");
         draft.setNumberOfWinners(request.getNumberOfWinners());
         draft.setStatus(DraftStatus.PENDING);
-        draft.setCreatedAt(LocalDateTime.now());
-        
-        // Add participants
-        List<User> participants = new ArrayList<>();
+        draft.setCreatedAt(createdAt);
+        draft.setScheduledAt(request.getScheduledAt());
+        if (request.getParticipantMode() != null) {
+            draft.setParticipantMode(request.getParticipantMode());
+        }
+        return draft;
+    }
+    
+    private void validateEligibility(DraftCreateRequest request) {
+        EligibilityRules rules = request.getEligibility();
         if (request.getParticipantIds() != null && !request.getParticipantIds().isEmpty()) {
-            // Use specified participants
-            participants = userRepository.findAllById(request.getParticipantIds());
-            if (participants.size() != request.getParticipantIds().size()) {
-                throw new IllegalArgumentException("Some participant IDs are invalid");
-            }
-        } else {
-            // Use all users as participants
-            participants = userRepository.findAll();
+            throw new IllegalArgumentException("participantIds and eligibility cannot be combined");
         }
-        
-        // Validate participant count vs winners
-        if (participants.size() < request.getNumberOfWinners()) {
+        if ((rules.getMinAge() != null && rules.getMinAge() < 0) || (rules.getMaxAge() != null && rules.getMaxAge() < 0)) {
+            throw new IllegalArgumentException("Eligibility ages cannot be negative");
+        }
+        if (rules.getMinAge() != null && rules.getMaxAge() != null && rules.getMinAge() > rules.getMaxAge()) {
+            throw new IllegalArgumentException("Eligibility minAge cannot be greater than maxAge");
+        }
+        if (rules.getNamePattern() != null
+                && (rules.getNamePattern().isBlank() || rules.getNamePattern().length() > MAX_NAME_PATTERN_LENGTH)) {
+            throw new IllegalArgumentException(
+                    "Eligibility namePattern must be 1 to " + MAX_NAME_PATTERN_LENGTH + " characters");
+        }
+        if (rules.getNamePattern() != null && endsWithLoneEscape(rules.getNamePattern())) {
+            throw new IllegalArgumentException("Eligibility namePattern cannot end with an unescaped '\\'");
+        }
+    }
+    
+    // A trailing '\' escapes nothing; databases either reject such a LIKE or let it match nothing
+    private static boolean endsWithLoneEscape(String pattern) {
+        int escapes = 0;
+        for (int i = pattern.length() - 1; i >= 0 && pattern.charAt(i) == '\\'; i--) {
+            escapes++;
+        }
+        return escapes % 2 == 1;
+    }
+    
+    // Bitmap of the ids of users matching the rules, streamed straight from the database
+    private RoaringBitmap eligibleUsersBitmap(EligibilityRules rules) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        participantJdbcRepository.forEachEligibleUserId(rules,
+                userId -> bitmap.add(ParticipantBitmaps.toInt(userId)));
+        return bitmap;
+    }
+    
+    // Bitmap of every current user id, streamed straight from the users table
+    private RoaringBitmap allUsersBitmap() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        userJdbcRepository.forEachUserId(userId -> bitmap.add(ParticipantBitmaps.toInt(userId)));
+        return bitmap;
+    }
+    
+    // Validate participant count vs winners
+    private void validateWinnerCount(int numberOfWinners, int participantCount) {
+        if (participantCount < numberOfWinners) {
             throw new IllegalArgumentException(
-                "Number of winners (" + request.getNumberOfWinners() + 
-                ") cannot exceed number of participants (" + participants.size() + ")"
+                "Number of winners (" + numberOfWinners + 
+                ") cannot exceed number of participants (" + participantCount + ")"
             );
         }
-        
-        draft.setParticipants(participants);
-        
-        // Save draft
-        Draft savedDraft = draftRepository.save(draft);
-        
-        return convertToResponse(savedDraft);
     }
     
-    // Execute a draft (select winners randomly)
+    // Execute a draft (select winners randomly).
+    // PENDING -> EXECUTING is claimed atomically and committed first, so concurrent or retried calls
+    // fail fast instead of drawing twice; the draw then runs in its own transaction and ends in EXECUTED.
+    // A claim left behind by a crashed process expires after the execution lease (see releaseStaleExecutions).
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DraftResponse executeDraft(Long draftId) {
-        Optional<Draft> optionalDraft = draftRepository.findById(draftId);
-        if (!optionalDraft.isPresent()) {
-            throw new IllegalArgumentException("Draft not found with ID: " + draftId);
-        }
-        
-        Draft draft = optionalDraft.get();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Truncated to the column's precision so the value reads back equal
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         
-        // Check if draft can be executed
-        if (draft.getStatus() != DraftStatus.PENDING) {
+        Boolean claimed = transaction.execute(status -> {
+            boolean won = draftRepository.claimExecution(draftId, claimedAt) == 1;
+            if (won) {
+                draftResponseCache.evictAfterCommit(draftId);
+                resourceVersions.draftsChanged();
+                draftEventBus.publishAfterCommit(draftId, DraftStatus.EXECUTING);
+            }
+            return won;
+        });
+        if (!Boolean.TRUE.equals(claimed)) {
+            Draft draft = draftRepository.findById(draftId)
+                    .orElseThrow(() -> new IllegalArgumentException("Draft not found with ID: " + draftId));
+            if (draft.getStatus() == DraftStatus.EXECUTING) {
+                throw new IllegalStateException("Draft is already being executed");
+            }
             throw new IllegalStateException("Draft can only be executed when status is PENDING");
         }
         
-        List<User> participants = draft.getParticipants();
-        if (participants.isEmpty()) {
-            throw new IllegalStateException("No participants found for this draft");
+        try {
+            return transaction.execute(status -> {
+                Draft draft = draftRepository.findById(draftId)
+                        .orElseThrow(() -> new IllegalArgumentException("Draft not found with ID: " + draftId));
+                // The lease ran out and the draft was released (and maybe claimed again) in the meantime.
+                // A release after this point bumps the version, so the final save fails instead.
+                if (draft.getStatus() != DraftStatus.EXECUTING || !claimedAt.equals(draft.getExecutionClaimedAt())) {
+                    throw new IllegalStateException("Execution claim expired");
+                }
+                return performExecution(draft);
+            });
+        } catch (RuntimeException e) {
+            // Release our claim so the draft can be executed again
+            transaction.executeWithoutResult(status -> {
+                if (draftRepository.releaseExecution(draftId, claimedAt) == 1) {
+                    draftResponseCache.evictAfterCommit(draftId);
+                    resourceVersions.draftsChanged();
+                    draftEventBus.publishAfterCommit(draftId, DraftStatus.PENDING);
+                }
+            });
+            throw e;
         }
+    }
+    
+    // Put drafts whose EXECUTING claim is older than the execution lease back to PENDING. The draw
+    // commits winners and EXECUTED together, so a stale claim never has winners to clean up.
+    public List<Long> releaseStaleExecutions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(executionLease);
+        List<Long> released = new ArrayList<>();
+        for (Long draftId : draftRepository.findStaleExecutionIds(cutoff)) {
+            if (draftRepository.releaseStaleExecution(draftId, cutoff) == 1) {
+                draftResponseCache.evictAfterCommit(draftId);
+                draftEventBus.publishAfterCommit(draftId, DraftStatus.PENDING);
+                released.add(draftId);
+            }
+        }
+        if (!released.isEmpty()) {
+            resourceVersions.draftsChanged();
+        }
+        return released;
+    }
+    
+    // Execute a scheduled draft if it is still pending and not locked by another worker or instance
+    public Optional<DraftResponse> executeScheduledDraft(Long draftId) {
+        return draftRepository.lockPendingDraft(draftId).map(this::performExecution);
+    }
+    
+    // Ids of pending drafts whose scheduled time has passed
+    @Transactional(readOnly = true)
+    public List<Long> findDueDraftIds(int limit) {
+        return draftRepository.findDueDraftIds(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+    
+    // Draw winners for a pending draft
+    private DraftResponse performExecution(Draft draft) {
+        Long draftId = draft.getId();
         
-        if (participants.size() < draft.getNumberOfWinners()) {
-            throw new IllegalStateException(
-                "Not enough participants (" + participants.size() + 
-                ") for the required number of winners (" + draft.getNumberOfWinners() + ")"
-            );
+        // Only participant ids are read; no User entities are loaded for the draw
+        long[] winnerIds;
+        int participantCount;
+        if (draft.getParticipantMode() == ParticipantMode.BITMAP) {
+            RoaringBitmap participants = ParticipantBitmaps.deserialize(draft.getParticipantBitmap());
+            participantCount = participants.getCardinality();
+            checkEnoughParticipants(participantCount, draft.getNumberOfWinners());
+            winnerIds = selectRandomWinnerIds(participants, draft.getNumberOfWinners());
+        } else {
+            long[] participantIds = participantJdbcRepository.findParticipantIds(draftId);
+            participantCount = participantIds.length;
+            checkEnoughParticipants(participantCount, draft.getNumberOfWinners());
+            winnerIds = selectRandomWinnerIds(participantIds, draft.getNumberOfWinners());
         }
         
-        // Select winners randomly
-        List<User> winners = selectRandomWinners(participants, draft.getNumberOfWinners());
-        draft.setWinners(winners);
+        // Write winners in one batch, bypassing collection diffing
+        participantJdbcRepository.insertWinners(draftId, winnerIds);
         draft.setStatus(DraftStatus.EXECUTED);
         draft.setExecutedAt(LocalDateTime.now());
+        draft.setExecutionClaimedAt(null);
         
         // Save updated draft
         Draft savedDraft = draftRepository.save(draft);
+        draftResponseCache.evictAfterCommit(draftId);
+        resourceVersions.draftsChanged();
+        draftEventBus.publishAfterCommit(draftId, DraftStatus.EXECUTED);
         
-        return convertToResponse(savedDraft);
+        return convertToCountedResponse(savedDraft, loadWinnerDtos(winnerIds), participantCount);
     }
     
-    // Get all drafts
-    public List<DraftResponse> getAllDrafts() {
-        List<Draft> drafts = draftRepository.findAllByOrderByCreatedAtDesc();
-        return drafts.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    private void checkEnoughParticipants(int participantCount, int numberOfWinners) {
+        if (participantCount == 0) {
+            throw new IllegalStateException("No participants found for this draft");
+        }
+        
+        if (participantCount < numberOfWinners) {
+            throw new IllegalStateException(
+                "Not enough participants (" + participantCount + 
+                ") for the required number of winners (" + numberOfWinners + ")"
+            );
+        }
+    }
+    
+    // Get one page of drafts, newest first
+    public CursorPage<DraftResponse> getAllDrafts(String cursor, Integer size) {
+        return getDraftsPage(null, cursor, size);
+    }
+    
+    // Get one page of draft summaries (no participant payloads), newest first
+    public CursorPage<DraftSummary> getDraftSummaries(DraftStatus status, String cursor, Integer size) {
+        if (status == null) {
+            return getSummaryPage(cursor, size, draftRepository::findFirstSummaryPage,
+                    (after, limit) -> draftRepository.findSummaryPageAfter(after.createdAt(), after.id(), limit));
+        }
+        return getSummaryPage(cursor, size,
+                limit -> draftRepository.findFirstSummaryPageByStatus(status, limit),
+                (after, limit) -> draftRepository.findSummaryPageByStatusAfter(status, after.createdAt(), after.id(), limit));
+    }
+    
+    // Keyset page on (createdAt, id) over summaries: one extra row is fetched to tell whether another page exists
+    private CursorPage<DraftSummary> getSummaryPage(String cursor, Integer size,
+                                                    Function<Pageable, List<DraftSummary>> firstPage,
+                                                    BiFunction<DraftKey, Pageable, List<DraftSummary>> pageAfter) {
+        int pageSize = CursorCodec.pageSize(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<DraftSummary> summaries = cursor == null || cursor.isEmpty()
+                ? firstPage.apply(limit)
+                : pageAfter.apply(decodeDraftCursor(cursor), limit);
+        
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            DraftSummary last = summaries.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(summaries, nextCursor);
+    }
+    
+    // Current @Version of a draft, empty when it does not exist
+    public Optional<Long> findDraftVersion(Long draftId) {
+        return draftRepository.findVersionById(draftId);
     }
     
     // Get draft by ID
@@ -134,12 +557,82 @@ public class DraftService {
         return convertToResponse(optionalDraft.get());
     }
     
-    // Get drafts by status
-    public List<DraftResponse> getDraftsByStatus(DraftStatus status) {
-        List<Draft> drafts = draftRepository.findByStatusOrderByCreatedAtDesc(status);
-        return drafts.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // Get one page of a draft's participants in id order, without materializing the whole list
+    public CursorPage<DraftResponse.UserDto> getParticipants(Long draftId, String cursor, Integer size) {
+        int pageSize = CursorCodec.pageSize(size, DEFAULT_PARTICIPANT_PAGE_SIZE, MAX_PARTICIPANT_PAGE_SIZE);
+        long afterId = 0L;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                afterId = Long.parseLong(CursorCodec.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            // Cursors only ever hold participant ids; a negative one would wrap around in the bitmap seek
+            if (afterId < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        
+        // IllegalArgumentException already means a bad cursor here
+        ParticipantMode mode = draftRepository.findParticipantMode(draftId)
+                .orElseThrow(() -> new NoSuchElementException("Draft not found with ID: " + draftId));
+        if (mode == ParticipantMode.BITMAP) {
+            return getBitmapParticipants(draftId, afterId, pageSize);
+        }
+        
+        List<DraftResponse.UserDto> participants =
+                draftRepository.findParticipantPage(draftId, afterId, PageRequest.of(0, pageSize + 1));
+        
+        String nextCursor = null;
+        if (participants.size() > pageSize) {
+            participants = participants.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(participants.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(participants, nextCursor);
+    }
+    
+    // Participant page of a BITMAP draft: seek the bitmap past afterId, then load just those users.
+    // The cursor follows the bitmap, so users deleted since the draft was created leave gaps, not stalls.
+    private CursorPage<DraftResponse.UserDto> getBitmapParticipants(Long draftId, long afterId, int pageSize) {
+        RoaringBitmap bitmap = ParticipantBitmaps.deserialize(draftRepository.findParticipantBitmap(draftId));
+        PeekableIntIterator iterator = bitmap.getIntIterator();
+        if (afterId >= Integer.MAX_VALUE) {
+            return new CursorPage<>(new ArrayList<>(), null);
+        }
+        iterator.advanceIfNeeded((int) afterId + 1);
+        
+        List<Long> ids = new ArrayList<>(pageSize + 1);
+        while (iterator.hasNext() && ids.size() <= pageSize) {
+            ids.add((long) iterator.next());
+        }
+        
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(ids.get(pageSize - 1));
+        }
+        List<DraftResponse.UserDto> participants = ids.isEmpty()
+                ? new ArrayList<>()
+                : userRepository.findUserDtosByIdIn(ids);
+        return new CursorPage<>(participants, nextCursor);
+    }
+    
+    // Whether a user is a participant of a draft; a bitmap lookup for BITMAP drafts, an index probe otherwise
+    @Transactional(readOnly = true)
+    public boolean isParticipant(Long draftId, Long userId) {
+        ParticipantMode mode = draftRepository.findParticipantMode(draftId)
+                .orElseThrow(() -> new NoSuchElementException("Draft not found with ID: " + draftId));
+        if (mode == ParticipantMode.BITMAP) {
+            return userId >= 0 && userId <= Integer.MAX_VALUE
+                    && ParticipantBitmaps.deserialize(draftRepository.findParticipantBitmap(draftId))
+                            .contains(userId.intValue());
+        }
+        return participantJdbcRepository.isParticipant(draftId, userId);
+    }
+    
+    // Get one page of drafts with the given status, newest first
+    public CursorPage<DraftResponse> getDraftsByStatus(DraftStatus status, String cursor, Integer size) {
+        return getDraftsPage(status, cursor, size);
     }
     
     // Cancel a draft
@@ -149,49 +642,210 @@ public class DraftService {
             throw new IllegalArgumentException("Draft not found with ID: " + draftId);
         }
         
-        Draft draft = optionalDraft.get();
-        
-        if (draft.getStatus() != DraftStatus.PENDING) {
+        // Compare-and-set, so a cancel can never overwrite a concurrent execution
+        if (draftRepository.transitionStatus(draftId, DraftStatus.PENDING, DraftStatus.CANCELLED) != 1) {
             throw new IllegalStateException("Only pending drafts can be cancelled");
         }
+        draftResponseCache.evictAfterCommit(draftId);
+        resourceVersions.draftsChanged();
+        draftEventBus.publishAfterCommit(draftId, DraftStatus.CANCELLED);
         
-        draft.setStatus(DraftStatus.CANCELLED);
-        Draft savedDraft = draftRepository.save(draft);
-        
-        return convertToResponse(savedDraft);
+        entityManager.refresh(optionalDraft.get());
+        return convertToResponse(optionalDraft.get());
     }
     
-    // Get drafts where a user is a participant
-    public List<DraftResponse> getDraftsByParticipant(Long userId) {
-        List<Draft> drafts = draftRepository.findDraftsByParticipantId(userId);
-        return drafts.stream()
-                .map(this::convertToResponse)
+    // Get one page of summaries of drafts where a user is a participant, newest first. Join-table drafts
+    // come from the reverse index; BITMAP drafts have no join rows, so the ones whose bitmap contains the
+    // user are found by probing and merged into the page.
+    public CursorPage<DraftSummary> getDraftSummariesByParticipant(Long userId, String cursor, Integer size) {
+        List<BitmapDraft> bitmapDrafts = userId >= 0 && userId <= Integer.MAX_VALUE
+                ? participantJdbcRepository.findBitmapDraftsContaining(userId.intValue())
+                : List.of();
+        return getSummaryPage(cursor, size,
+                limit -> withBitmapDrafts(draftRepository.findFirstSummaryPageByParticipant(userId, limit),
+                        bitmapDrafts, null, limit),
+                (after, limit) -> withBitmapDrafts(draftRepository.findSummaryPageByParticipantAfter(
+                        userId, after.createdAt(), after.id(), limit), bitmapDrafts, after, limit));
+    }
+    
+    // Merge the BITMAP drafts past the cursor into a join-table page, keeping (createdAt, id) DESC order
+    // and the page's limit
+    private List<DraftSummary> withBitmapDrafts(List<DraftSummary> page, List<BitmapDraft> bitmapDrafts,
+                                                DraftKey after, Pageable limit) {
+        List<Long> ids = bitmapDrafts.stream()
+                .filter(draft -> after == null || draft.createdAt().isBefore(after.createdAt())
+                        || draft.createdAt().isEqual(after.createdAt()) && draft.id() < after.id())
+                .limit(limit.getPageSize())
+                .map(BitmapDraft::id)
                 .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return page;
+        }
+        List<DraftSummary> merged = new ArrayList<>(page);
+        merged.addAll(draftRepository.findSummariesByIdIn(ids));
+        merged.sort(Comparator.comparing(DraftSummary::getCreatedAt).thenComparing(DraftSummary::getId).reversed());
+        return merged.size() > limit.getPageSize() ? merged.subList(0, limit.getPageSize()) : merged;
     }
     
-    // Get drafts where a user is a winner
-    public List<DraftResponse> getDraftsByWinner(Long userId) {
-        List<Draft> drafts = draftRepository.findDraftsByWinnerId(userId);
-        return drafts.stream()
-                .map(this::convertToResponse)
+    // Get one page of summaries of drafts where a user is a winner, newest first
+    public CursorPage<DraftSummary> getDraftSummariesByWinner(Long userId, String cursor, Integer size) {
+        return getSummaryPage(cursor, size,
+                limit -> draftRepository.findFirstSummaryPageByWinner(userId, limit),
+                (after, limit) -> draftRepository.findSummaryPageByWinnerAfter(
+                        userId, after.createdAt(), after.id(), limit));
+    }
+    
+    // Get one page of drafts where a user is a participant, newest first, with participants and winners
+    public CursorPage<DraftResponse> getDraftsByParticipant(Long userId, String cursor, Integer size) {
+        return toResponsePage(getDraftSummariesByParticipant(userId, cursor, size));
+    }
+    
+    // Get one page of drafts where a user is a winner, newest first, with participants and winners
+    public CursorPage<DraftResponse> getDraftsByWinner(Long userId, String cursor, Integer size) {
+        return toResponsePage(getDraftSummariesByWinner(userId, cursor, size));
+    }
+    
+    // Full responses for the drafts of a summary page, in the page's order and with the page's cursor;
+    // only this page's drafts are loaded, with one query per join table
+    private CursorPage<DraftResponse> toResponsePage(CursorPage<DraftSummary> page) {
+        List<Long> ids = page.items().stream().map(DraftSummary::getId).collect(Collectors.toList());
+        Map<Long, Draft> draftsById = draftRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Draft::getId, Function.identity()));
+        List<Draft> drafts = ids.stream()
+                .map(draftsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new CursorPage<>(convertToResponses(drafts), page.nextCursor());
+    }
+    
+    // Keyset page on (createdAt, id): one extra row is fetched to tell whether another page exists
+    private CursorPage<DraftResponse> getDraftsPage(DraftStatus status, String cursor, Integer size) {
+        int pageSize = CursorCodec.pageSize(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<Draft> drafts;
+        if (cursor == null || cursor.isEmpty()) {
+            drafts = status == null
+                    ? draftRepository.findFirstPage(limit)
+                    : draftRepository.findFirstPageByStatus(status, limit);
+        } else {
+            DraftKey after = decodeDraftCursor(cursor);
+            drafts = status == null
+                    ? draftRepository.findPageAfter(after.createdAt(), after.id(), limit)
+                    : draftRepository.findPageByStatusAfter(status, after.createdAt(), after.id(), limit);
+        }
+        
+        String nextCursor = null;
+        if (drafts.size() > pageSize) {
+            drafts = drafts.subList(0, pageSize);
+            Draft last = drafts.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(convertToResponses(drafts), nextCursor);
+    }
+    
+    private DraftKey decodeDraftCursor(String cursor) {
+        String[] position = CursorCodec.decode(cursor, 2);
+        try {
+            return new DraftKey(LocalDateTime.parse(position[0]), Long.valueOf(position[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    // Keyset position of a draft in (createdAt DESC, id DESC) order
+    private record DraftKey(LocalDateTime createdAt, Long id) {}
+    
+    // Draw winners from a participant bitmap by rank (select) without expanding it. Users deleted since
+    // the draft was created are still in the bitmap; any drawn are dropped and the whole draw is repeated.
+    private long[] selectRandomWinnerIds(RoaringBitmap participants, int numberOfWinners) {
+        while (true) {
+            int participantCount = participants.getCardinality();
+            checkEnoughParticipants(participantCount, numberOfWinners);
+            
+            long[] winnerIds;
+            if (numberOfWinners >= participantCount) {
+                winnerIds = participants.stream().asLongStream().toArray();
+            } else {
+                int[] positions = winnerSelector.select(participantCount, numberOfWinners);
+                winnerIds = new long[numberOfWinners];
+                for (int i = 0; i < positions.length; i++) {
+                    winnerIds[i] = participants.select(positions[i]);
+                }
+            }
+            
+            Set<Long> existing = userJdbcRepository.findExistingIds(
+                    Arrays.stream(winnerIds).boxed().collect(Collectors.toList()));
+            if (existing.size() == winnerIds.length) {
+                return winnerIds;
+            }
+            for (long winnerId : winnerIds) {
+                if (!existing.contains(winnerId)) {
+                    participants.remove((int) winnerId);
+                }
+            }
+        }
     }
     
     // Private helper method to select random winners
-    private List<User> selectRandomWinners(List<User> participants, int numberOfWinners) {
-        if (numberOfWinners >= participants.size()) {
+    private long[] selectRandomWinnerIds(long[] participantIds, int numberOfWinners) {
+        if (numberOfWinners >= participantIds.length) {
             // If we need all or more participants as winners, return all
-            return new ArrayList<>(participants);
+            return participantIds.clone();
         }
         
-        // Create a copy of participants list to avoid modifying the original
-        List<User> shuffledParticipants = new ArrayList<>(participants);
-        
-        // Use SecureRandom for cryptographically secure randomness
-        Collections.shuffle(shuffledParticipants, secureRandom);
+        // Only the chosen positions are drawn; the id array is neither copied nor shuffled
+        int[] positions = winnerSelector.select(participantIds.length, numberOfWinners);
+        long[] winnerIds = new long[numberOfWinners];
+        for (int i = 0; i < positions.length; i++) {
+            winnerIds[i] = participantIds[positions[i]];
+        }
+        return winnerIds;
+    }
+    
+    // Winners loaded by id, kept in draw order
+    private List<DraftResponse.UserDto> loadWinnerDtos(long[] winnerIds) {
+        List<Long> ids = Arrays.stream(winnerIds).boxed().collect(Collectors.toList());
+        Map<Long, User> winnersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
         
-        // Return the first N participants after shuffling
-        return shuffledParticipants.subList(0, numberOfWinners);
+        return ids.stream()
+                .map(winnersById::get)
+                .filter(Objects::nonNull)
+                .map(user -> new DraftResponse.UserDto(user.getId(), user.getName(), user.getEmail()))
+                .collect(Collectors.toList());
+    }
+    
+    // Response for a draft whose join rows were just written set-based: participants only as a count
+    private DraftResponse convertToCountedResponse(Draft draft, List<DraftResponse.UserDto> winnerDtos,
+                                                   int participantCount) {
+        DraftResponse response = new DraftResponse(
+                draft.getId(),
+                draft.getTitle(),
+                draft.getDescription(),
+                draft.getNumberOfWinners(),
+                draft.getStatus(),
+                draft.getCreatedAt(),
+                draft.getExecutedAt(),
+                null,
+                winnerDtos
+        );
+        response.setScheduledAt(draft.getScheduledAt());
+        response.setVersion(draft.getVersion());
+        response.setParticipantMode(draft.getParticipantMode());
+        response.setParticipantCount(participantCount);
+        return response;
+    }
+    
+    // Convert a list of drafts, loading both join tables in one query each instead of two per draft
+    private List<DraftResponse> convertToResponses(List<Draft> drafts) {
+        if (!drafts.isEmpty()) {
+            draftRepository.fetchParticipants(drafts);
+            draftRepository.fetchWinners(drafts);
+        }
+        return drafts.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
     }
     
     // Convert Draft entity to DraftResponse DTO
@@ -204,7 +858,7 @@ public class DraftService {
                 .map(user -> new DraftResponse.UserDto(user.getId(), user.getName(), user.getEmail()))
                 .collect(Collectors.toList());
         
-        return new DraftResponse(
+        DraftResponse response = new DraftResponse(
                 draft.getId(),
                 draft.getTitle(),
                 draft.getDescription(),
@@ -215,5 +869,16 @@ public class DraftService {
                 participantDtos,
                 winnerDtos
         );
+        response.setScheduledAt(draft.getScheduledAt());
+        response.setVersion(draft.getVersion());
+        response.setParticipantMode(draft.getParticipantMode());
+        if (draft.getParticipantMode() == ParticipantMode.BITMAP) {
+            // Bitmap participants are only listed through the paginated participants endpoint
+            response.setParticipants(null);
+            response.setParticipantCount(draft.getParticipantCount());
+        } else {
+            response.setParticipantCount(participantDtos.size());
+        }
+        return response;
     }
 }
@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.HashSet;
+import java.util.Set;
+
+// Robert Floyd's sampling algorithm: k SecureRandom draws and O(k) memory regardless of n.
+// Every k-subset is equally likely; a final Fisher-Yates pass over the k picks randomizes their order.
+@Component
+@ConditionalOnProperty(name = "app.draft.winner-selector", havingValue = "floyd", matchIfMissing = true)
+public class FloydWinnerSelector implements WinnerSelector {
+
+    private final SecureRandom random;
+
+    public FloydWinnerSelector() {
+        this(new SecureRandom());
+    }
+
+    public FloydWinnerSelector(SecureRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int[] select(int participantCount, int numberOfWinners) {
+        if (numberOfWinners < 0 || numberOfWinners > participantCount) {
+            throw new IllegalArgumentException(
+                "Cannot select " + numberOfWinners + " winners from " + participantCount + " participants");
+        }
+
+        int[] picks = new int[numberOfWinners];
+        Set<Integer> chosen = new HashSet<>(numberOfWinners * 2);
+        int count = 0;
+        for (int j = participantCount - numberOfWinners; j < participantCount; j++) {
+            int candidate = random.nextInt(j + 1);
+            if (!chosen.add(candidate)) {
+                // candidate was already taken; j itself cannot have been, since all earlier draws were < j
+                candidate = j;
+                chosen.add(j);
+            }
+            picks[count++] = candidate;
+        }
+
+        for (int i = picks.length - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            int tmp = picks[i];
+            picks[i] = picks[swap];
+            picks[swap] = tmp;
+        }
+        return picks;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Replays stored responses for repeated requests carrying the same Idempotency-Key.
+// A retry of an in-flight request waits for the original instead of running it again.
+@Service
+public class IdempotencyService {
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private final Cache<String, StoredResponse> responses;
+    
+    public IdempotencyService(@Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.max-size:10000}") long maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+    
+    // Run the action once per key; fingerprint identifies the request the key was first used with
+    public ResponseEntity<?> execute(String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        
+        StoredResponse fresh = new StoredResponse(fingerprint);
+        StoredResponse stored = responses.asMap().putIfAbsent(key, fresh);
+        if (stored == null) {
+            ResponseEntity<?> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                responses.invalidate(key);
+                fresh.result.completeExceptionally(e);
+                throw e;
+            }
+            // Server errors are not stored, so a retry gets a real second attempt
+            if (response.getStatusCode().is5xxServerError()) {
+                responses.invalidate(key);
+            }
+            fresh.result.complete(response);
+            return response;
+        }
+        
+        if (!stored.fingerprint.equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body("Error: Idempotency-Key was already used for a different request");
+        }
+        try {
+            ResponseEntity<?> original = stored.result.join();
+            return ResponseEntity.status(original.getStatusCode())
+                    .headers(original.getHeaders())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(original.getBody());
+        } catch (CompletionException e) {
+            // The original attempt failed without a response; let this retry run
+            responses.asMap().remove(key, stored);
+            return execute(key, fingerprint, action);
+        }
+    }
+    
+    private static final class StoredResponse {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        
+        private StoredResponse(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
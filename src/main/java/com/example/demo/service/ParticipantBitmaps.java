@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+// Conversions between participant user ids and the serialized Roaring bitmaps stored on BITMAP drafts.
+// Roaring bitmaps hold 32-bit values, so ids above Integer.MAX_VALUE need the join table mode.
+public final class ParticipantBitmaps {
+
+    private ParticipantBitmaps() {}
+
+    public static RoaringBitmap of(long[] userIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long userId : userIds) {
+            bitmap.add(toInt(userId));
+        }
+        return bitmap;
+    }
+
+    public static int toInt(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("User ID " + userId + " cannot be stored in a participant bitmap");
+        }
+        return (int) userId;
+    }
+
+    // Run-length encodes where it pays off (e.g. "all users" over a dense id range) before serializing
+    public static byte[] serialize(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSizeInBytes());
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    public static RoaringBitmap deserialize(byte[] bytes) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        if (bytes == null || bytes.length == 0) {
+            return bitmap;
+        }
+        try {
+            bitmap.deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt participant bitmap", e);
+        }
+        return bitmap;
+    }
+}
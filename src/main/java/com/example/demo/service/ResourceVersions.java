@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+// Collection-level change counters behind the strong ETags of the draft and user endpoints; a single
+// draft's ETag comes from its own @Version instead, so it only changes when that draft does.
+// The counters live in the resource_versions table, so every instance derives the same ETag from the
+// same committed state and a change made through one instance is seen by all of them.
+@Component
+public class ResourceVersions {
+    
+    private static final String DRAFTS = "drafts";
+    private static final String USERS = "users";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public ResourceVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    // Create the counter rows once the schema exists; another instance may get there first
+    @EventListener(ContextRefreshedEvent.class)
+    public void createCounters() {
+        for (String name : new String[] {DRAFTS, USERS}) {
+            try {
+                jdbcTemplate.update("INSERT INTO resource_versions (name, version) "
+                        + "SELECT ?, 0 WHERE NOT EXISTS (SELECT 1 FROM resource_versions WHERE name = ?)", name, name);
+            } catch (DuplicateKeyException e) {
+                // Created concurrently
+            }
+        }
+    }
+    
+    // Record a change to any draft, including the user details embedded in it; the counter commits
+    // together with the change
+    public void draftsChanged() {
+        bumpOnCommit(DRAFTS);
+    }
+    
+    // Record a change to any user
+    public void usersChanged() {
+        bumpOnCommit(USERS);
+    }
+    
+    // ETag for draft lists: changes whenever any draft changes; new users leave it alone
+    public String draftsETag() {
+        return "\"drafts-" + read(DRAFTS) + "\"";
+    }
+    
+    // ETag for user collections
+    public String usersETag() {
+        return "\"users-" + read(USERS) + "\"";
+    }
+    
+    // ETag for one draft from its @Version, which is also bumped when a user embedded in it changes
+    public String draftETag(Long draftId, Long draftVersion) {
+        return "\"draft-" + draftId + "." + draftVersion + "\"";
+    }
+    
+    // ETag for one user, from the fields its body shows; unaffected by changes to other users
+    public String userETag(User user) {
+        String fields = user.getId() + "\u0000" + user.getName() + "\u0000" + user.getEmail() + "\u0000"
+                + Objects.toString(user.getAge(), "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+            return "\"user-" + user.getId() + "-" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private long read(String name) {
+        Long version = jdbcTemplate.query("SELECT version FROM resource_versions WHERE name = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, name);
+        return version != null ? version : 0;
+    }
+    
+    // Bumped in the caller's transaction, but only just before it commits, so concurrent writers hold
+    // the counter row's lock for the commit itself rather than for their whole transaction
+    private void bumpOnCommit(String name) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    bump(name);
+                }
+            });
+        } else {
+            bump(name);
+        }
+    }
+    
+    private void bump(String name) {
+        jdbcTemplate.update("UPDATE resource_versions SET version = version + 1 WHERE name = ?", name);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+// Original strategy: Fisher-Yates shuffle of every position, then take the first k.
+// O(n) memory and SecureRandom draws; kept as a fallback and as the benchmark baseline.
+@Component
+@ConditionalOnProperty(name = "app.draft.winner-selector", havingValue = "shuffle")
+public class ShuffleWinnerSelector implements WinnerSelector {
+
+    private final SecureRandom random;
+
+    public ShuffleWinnerSelector() {
+        this(new SecureRandom());
+    }
+
+    public ShuffleWinnerSelector(SecureRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int[] select(int participantCount, int numberOfWinners) {
+        if (numberOfWinners < 0 || numberOfWinners > participantCount) {
+            throw new IllegalArgumentException(
+                "Cannot select " + numberOfWinners + " winners from " + participantCount + " participants");
+        }
+
+        int[] positions = new int[participantCount];
+        for (int i = 0; i < participantCount; i++) {
+            positions[i] = i;
+        }
+        for (int i = participantCount - 1; i > 0; i--) {
+            int swap = random.nextInt(i + 1);
+            int tmp = positions[i];
+            positions[i] = positions[swap];
+            positions[swap] = tmp;
+        }
+
+        int[] picks = new int[numberOfWinners];
+        System.arraycopy(positions, 0, picks, 0, numberOfWinners);
+        return picks;
+    }
+}
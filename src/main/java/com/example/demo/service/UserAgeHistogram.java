@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AgeHistogramResponse;
+import com.example.demo.repository.UserJdbcRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Users per exact age, kept in memory so histogram requests never touch the users table.
+// Loaded with one GROUP BY when the application is ready and adjusted by UserService and
+// UserImportService on every write. Writes that race a reload, and writes made by other instances,
+// are corrected by the periodic reload.
+@Component
+public class UserAgeHistogram {
+
+    // ConcurrentHashMap keys cannot be null, so users without an age are counted under this key
+    private static final int UNKNOWN_AGE = Integer.MIN_VALUE;
+    // Wider buckets than any plausible age range only describe bad data
+    public static final int MAX_BUCKET_SIZE = 1000;
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    // Null until the first load; replaced wholesale by every reload
+    private volatile ConcurrentHashMap<Integer, LongAdder> counts;
+
+    public UserAgeHistogram(UserJdbcRepository userJdbcRepository) {
+        this.userJdbcRepository = userJdbcRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-age-histogram.refresh:10m}",
+               initialDelayString = "${app.user-age-histogram.refresh:10m}")
+    public void reload() {
+        ConcurrentHashMap<Integer, LongAdder> loaded = new ConcurrentHashMap<>();
+        userJdbcRepository.countUsersByAge().forEach((age, count) ->
+                loaded.computeIfAbsent(key(age), k -> new LongAdder()).add(count));
+        counts = loaded;
+    }
+
+    public void added(Integer age) {
+        adjust(age, 1);
+    }
+
+    public void removed(Integer age) {
+        adjust(age, -1);
+    }
+
+    public void changed(Integer oldAge, Integer newAge) {
+        if (!Objects.equals(oldAge, newAge)) {
+            adjust(oldAge, -1);
+            adjust(newAge, 1);
+        }
+    }
+
+    // Non-empty buckets of bucketSize ages each, aligned to multiples of bucketSize
+    public AgeHistogramResponse snapshot(int bucketSize) {
+        if (bucketSize < 1 || bucketSize > MAX_BUCKET_SIZE) {
+            throw new IllegalArgumentException("bucketSize must be between 1 and " + MAX_BUCKET_SIZE);
+        }
+        ConcurrentHashMap<Integer, LongAdder> current = counts;
+        if (current == null) {
+            reload();
+            current = counts;
+        }
+        
+        TreeMap<Integer, Long> buckets = new TreeMap<>();
+        long unknown = 0;
+        long total = 0;
+        for (Map.Entry<Integer, LongAdder> entry : current.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count <= 0) {
+                continue;
+            }
+            total += count;
+            if (entry.getKey() == UNKNOWN_AGE) {
+                unknown += count;
+            } else {
+                buckets.merge(Math.floorDiv(entry.getKey(), bucketSize) * bucketSize, count, Long::sum);
+            }
+        }
+        
+        AgeHistogramResponse response = new AgeHistogramResponse(bucketSize, total, unknown);
+        // Saturated: ages are unconstrained ints, so the last bucket's upper bound could pass Integer.MAX_VALUE
+        buckets.forEach((minAge, count) -> response.getBuckets().add(new AgeHistogramResponse.Bucket(
+                minAge, (int) Math.min((long) minAge + bucketSize - 1, Integer.MAX_VALUE), count)));
+        return response;
+    }
+
+    private void adjust(Integer age, int delta) {
+        ConcurrentHashMap<Integer, LongAdder> current = counts;
+        // Before the first load the database is the source of truth, and the load will include this write
+        if (current != null) {
+            current.computeIfAbsent(key(age), k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static int key(Integer age) {
+        return age == null ? UNKNOWN_AGE : age;
+    }
+}
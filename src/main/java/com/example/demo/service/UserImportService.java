@@ -0,0 +1,336 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserImportProgress;
+import com.example.demo.dto.UserRegistrationDto;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Streaming bulk user import from CSV or NDJSON.
+// Rows are read incrementally and handled in batches: duplicate emails are checked with one query per
+// batch, passwords are BCrypt-hashed in parallel on a bounded pool, and each batch is inserted as one
+// JDBC batch in its own transaction, so memory stays flat and progress survives a failed later batch.
+@Service
+public class UserImportService {
+    
+    public enum ImportFormat { CSV, NDJSON }
+    
+    private final UserJdbcRepository userJdbcRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersions resourceVersions;
+    private final UserSearchIndex userSearchIndex;
+    private final UserAgeHistogram userAgeHistogram;
+    private final ThreadPoolExecutor hashingPool;
+    private final int batchSize;
+    private final int maxErrors;
+    
+    public UserImportService(UserJdbcRepository userJdbcRepository,
+                             PasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             ResourceVersions resourceVersions,
+                             UserSearchIndex userSearchIndex,
+                             UserAgeHistogram userAgeHistogram,
+                             @Value("${app.user-import.batch-size:1000}") int batchSize,
+                             @Value("${app.user-import.hash-threads:0}") int hashThreads,
+                             @Value("${app.user-import.max-errors:100}") int maxErrors) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resourceVersions = resourceVersions;
+        this.userSearchIndex = userSearchIndex;
+        this.userAgeHistogram = userAgeHistogram;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        
+        // BCrypt is CPU bound: one thread per core unless configured. When the queue is full the
+        // importing thread hashes itself, which throttles concurrent imports instead of queueing more.
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(batchSize, threads)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    // Import every row from the reader; onProgress is called after each batch with the running totals.
+    // Throws IllegalArgumentException before anything is imported if the input cannot be read at all.
+    public UserImportProgress importUsers(Reader input, ImportFormat format, Consumer<UserImportProgress> onProgress)
+            throws IOException {
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        RowReader rows = format == ImportFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+        UserImportProgress progress = new UserImportProgress();
+        
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        try {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    importBatch(batch, progress);
+                    batch.clear();
+                    onProgress.accept(progress);
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, progress);
+            }
+        } catch (RuntimeException e) {
+            // Batches already committed stay imported; re-running the file skips them as duplicates
+            progress.setError(e.getMessage());
+        }
+        progress.setDone(true);
+        onProgress.accept(progress);
+        return progress;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+    
+    private void importBatch(List<ImportRow> rows, UserImportProgress progress) {
+        progress.setProcessed(progress.getProcessed() + rows.size());
+        
+        // Validate and drop emails repeated within the batch
+        Map<String, ImportRow> candidates = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error != null) {
+                progress.setInvalid(progress.getInvalid() + 1);
+                addError(progress, row.line(), error);
+            } else if (candidates.putIfAbsent(row.user().getEmail().trim(), row) != null) {
+                progress.setDuplicates(progress.getDuplicates() + 1);
+            }
+        }
+        
+        // Earlier batches are already committed, so this also catches repeats across the whole file
+        removeExisting(candidates, progress);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        
+        List<User> users = hashPasswords(candidates);
+        long[] ids;
+        try {
+            ids = transactionTemplate.execute(status -> userJdbcRepository.insertUsers(users));
+        } catch (DuplicateKeyException e) {
+            // Someone registered one of these emails since the check; re-check and retry once
+            removeExisting(candidates, progress);
+            users.removeIf(user -> !candidates.containsKey(user.getEmail()));
+            ids = transactionTemplate.execute(status -> userJdbcRepository.insertUsers(users));
+        }
+        for (int i = 0; i < ids.length; i++) {
+            users.get(i).setId(ids[i]);
+        }
+        userSearchIndex.putAll(users);
+        users.forEach(user -> userAgeHistogram.added(user.getAge()));
+        progress.setImported(progress.getImported() + users.size());
+        resourceVersions.usersChanged();
+    }
+    
+    private void removeExisting(Map<String, ImportRow> candidates, UserImportProgress progress) {
+        Set<String> existing = userJdbcRepository.findExistingEmails(candidates.keySet());
+        candidates.keySet().removeAll(existing);
+        progress.setDuplicates(progress.getDuplicates() + existing.size());
+    }
+    
+    private List<User> hashPasswords(Map<String, ImportRow> candidates) {
+        List<Future<String>> hashes = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates.values()) {
+            String password = row.user().getPassword();
+            hashes.add(hashingPool.submit(() -> passwordEncoder.encode(password)));
+        }
+        
+        List<User> users = new ArrayList<>(candidates.size());
+        int i = 0;
+        try {
+            for (Map.Entry<String, ImportRow> entry : candidates.entrySet()) {
+                UserRegistrationDto dto = entry.getValue().user();
+                users.add(new User(dto.getName().trim(), entry.getKey(), hashes.get(i++).get(), dto.getAge()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return users;
+    }
+    
+    private String validate(UserRegistrationDto user) {
+        if (user.getName() == null || user.getName().isBlank()) {
+            return "name is required";
+        }
+        if (user.getEmail() == null || !user.getEmail().contains("@")) {
+            return "a valid email is required";
+        }
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            return "password is required";
+        }
+        if (user.getAge() != null && user.getAge() < 0) {
+            return "age cannot be negative";
+        }
+        return null;
+    }
+    
+    private void addError(UserImportProgress progress, long line, String message) {
+        if (progress.getErrors().size() < maxErrors) {
+            progress.getErrors().add("line " + line + ": " + message);
+        }
+    }
+    
+    // One input row: either a parsed user or the reason it could not be parsed
+    private record ImportRow(long line, UserRegistrationDto user, String error) {}
+    
+    private interface RowReader {
+        // Next data row, or null at end of input
+        ImportRow next() throws IOException;
+    }
+    
+    // One JSON object per line; blank lines are ignored
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+        
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(line, objectMapper.readValue(text, UserRegistrationDto.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(line, null, "malformed JSON");
+                }
+            }
+            return null;
+        }
+    }
+    
+    // RFC 4180 style CSV with a header row naming the name, email, password and (optional) age columns.
+    // Quoted fields may contain commas and doubled quotes, but not line breaks.
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long line;
+        
+        CsvRowReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV input is empty");
+            }
+            line = 1;
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            List<String> names = split(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("name", "email", "password")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("CSV header must contain name, email and password columns");
+                }
+            }
+        }
+        
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(text);
+                UserRegistrationDto user = new UserRegistrationDto(
+                        field(fields, "name"), field(fields, "email"), field(fields, "password"), null);
+                String age = field(fields, "age");
+                if (age != null && !age.isBlank()) {
+                    try {
+                        user.setAge(Integer.parseInt(age.trim()));
+                    } catch (NumberFormatException e) {
+                        return new ImportRow(line, null, "age must be a number");
+                    }
+                }
+                return new ImportRow(line, user, null);
+            }
+            return null;
+        }
+        
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < fields.size() ? fields.get(index) : null;
+        }
+        
+        private static List<String> split(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
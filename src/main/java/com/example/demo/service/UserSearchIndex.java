@@ -0,0 +1,345 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over user names and emails for typeahead search.
+// Each lower-cased value is indexed as its trigrams plus two start-of-value grams, so both substring
+// and prefix queries intersect a few posting bitmaps and only verify the surviving candidates.
+// Built from the users table once the application is ready and kept current by UserService and
+// UserImportService. It is rebuilt every app.user-search-index.rebuild to pick up changes made through
+// other instances; the rebuild fills a fresh copy and swaps it in, so searches keep being served meanwhile.
+// search() returns empty until the first build finishes, and for substring queries shorter than a trigram,
+// so callers can use the database.
+@Component
+public class UserSearchIndex {
+
+    public enum Field { NAME, NAME_OR_EMAIL }
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    // Pads the start of values and prefix queries: "ab" is indexed as "\2\2a" and "\2ab"
+    private static final char START = '\u0002';
+    private static final String START_PADDING = "" + START + START;
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+    // Ids written by put/remove while a build runs; the build's older copy of those rows is replaced
+    // by the live entry when the new postings are swapped in
+    private final Set<Long> touchedDuringBuild = new HashSet<>();
+    private boolean building;
+    // Bitmaps hold 32-bit ids; beyond that the index switches itself off and search goes to the database
+    private boolean disabled;
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserJdbcRepository userJdbcRepository, MeterRegistry meterRegistry) {
+        this.userJdbcRepository = userJdbcRepository;
+        Gauge.builder("user.search.index.size", this, UserSearchIndex::size)
+                .description("Users held by the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    // Build in the background so startup is not held up; searches hit the database until it is done
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startBuild();
+    }
+
+    // Periodic rebuild, also in the background so the shared scheduler thread is not held up
+    @Scheduled(fixedDelayString = "${app.user-search-index.rebuild:30m}",
+               initialDelayString = "${app.user-search-index.rebuild:30m}")
+    public void rebuild() {
+        startBuild();
+    }
+
+    private void startBuild() {
+        Thread thread = new Thread(this::build, "user-search-index-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (building || disabled) {
+                return;
+            }
+            building = true;
+            touchedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Filled without the lock: only this thread sees it until the swap
+        Postings built = new Postings();
+        boolean fits;
+        try {
+            fits = addBuilt(built);
+        } catch (RuntimeException e) {
+            withWriteLock(() -> building = false);
+            log.warn("User search index build failed, searching the database instead", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            building = false;
+            if (!fits || disabled) {
+                disable();
+                return;
+            }
+            // Writes that raced the build win over the rows it read
+            for (Long id : touchedDuringBuild) {
+                built.remove(id);
+                Entry live = postings.entries.get(id);
+                if (live != null) {
+                    built.add(live);
+                }
+            }
+            touchedDuringBuild.clear();
+            postings = built;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User search index built with {} users in {} ms", built.entries.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Users whose name (or name or email) contains the query, or starts with it when prefix is set,
+    // case-insensitively and in id order. Empty while the index is warming, and for substring queries
+    // of one or two characters, which have no trigram to narrow the candidates with.
+    public Optional<List<User>> search(String query, Field field, boolean prefix, int limit) {
+        String key = query.toLowerCase(Locale.ROOT);
+        if (!ready || !prefix && key.length() < 3) {
+            return Optional.empty();
+        }
+        List<String> grams = trigrams(prefix ? START_PADDING + key : key);
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = candidates(postings.nameGrams, grams);
+            if (field == Field.NAME_OR_EMAIL) {
+                candidates = RoaringBitmap.or(candidates, candidates(postings.emailGrams, grams));
+            }
+
+            List<User> results = new ArrayList<>(Math.min(limit, candidates.getCardinality()));
+            IntIterator iterator = candidates.getIntIterator();
+            while (iterator.hasNext() && results.size() < limit) {
+                Entry entry = postings.entries.get((long) iterator.next());
+                if (matches(entry.nameKey(), key, prefix)
+                        || field == Field.NAME_OR_EMAIL && matches(entry.emailKey(), key, prefix)) {
+                    results.add(entry.toUser());
+                }
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Add or replace a saved user
+    public void put(User user) {
+        putAll(List.of(user));
+    }
+
+    public void putAll(Collection<User> users) {
+        withWriteLock(() -> {
+            for (User user : users) {
+                if (disabled) {
+                    return;
+                }
+                if (building) {
+                    touchedDuringBuild.add(user.getId());
+                }
+                if (!postings.add(Entry.of(user))) {
+                    disable();
+                }
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        withWriteLock(() -> {
+            if (building) {
+                touchedDuringBuild.add(id);
+            }
+            postings.remove(id);
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Read every user into the new postings; false as soon as a user id does not fit the bitmaps
+    private boolean addBuilt(Postings built) {
+        boolean[] fits = {true};
+        userJdbcRepository.forEachUser(user -> {
+            if (fits[0] && !built.add(Entry.of(user))) {
+                fits[0] = false;
+            }
+        });
+        return fits[0];
+    }
+
+    // Callers hold the write lock
+    private void disable() {
+        if (!disabled) {
+            log.warn("User ids do not fit the search index, disabling it and searching the database instead");
+        }
+        disabled = true;
+        ready = false;
+        postings = new Postings();
+    }
+
+    // Intersect the postings of every gram, smallest first; the shared allIds bitmap when there are none
+    private RoaringBitmap candidates(Map<String, RoaringBitmap> grams, List<String> queryGrams) {
+        if (queryGrams.isEmpty()) {
+            return postings.allIds;
+        }
+        List<RoaringBitmap> bitmaps = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            RoaringBitmap bitmap = grams.get(gram);
+            if (bitmap == null) {
+                return new RoaringBitmap();
+            }
+            bitmaps.add(bitmap);
+        }
+        bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        return result;
+    }
+
+    private static boolean matches(String value, String key, boolean prefix) {
+        return prefix ? value.startsWith(key) : value.contains(key);
+    }
+
+    private static List<String> trigrams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(value.substring(i, i + 3));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // One complete copy of the index: entries by id plus the name and email gram postings
+    private static final class Postings {
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final RoaringBitmap allIds = new RoaringBitmap();
+        private final Map<String, RoaringBitmap> nameGrams = new HashMap<>();
+        private final Map<String, RoaringBitmap> emailGrams = new HashMap<>();
+
+        // False (and nothing added) when the id does not fit a 32-bit bitmap
+        boolean add(Entry entry) {
+            if (entry.id() < 0 || entry.id() > Integer.MAX_VALUE) {
+                return false;
+            }
+            Entry old = entries.put(entry.id(), entry);
+            if (old != null) {
+                removeGrams(old);
+            }
+            int id = entry.id().intValue();
+            for (String gram : trigrams(START_PADDING + entry.nameKey())) {
+                nameGrams.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+            }
+            for (String gram : trigrams(START_PADDING + entry.emailKey())) {
+                emailGrams.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+            }
+            allIds.add(id);
+            return true;
+        }
+
+        void remove(Long id) {
+            Entry old = entries.remove(id);
+            if (old != null) {
+                removeGrams(old);
+                allIds.remove(old.id().intValue());
+            }
+        }
+
+        private void removeGrams(Entry entry) {
+            int id = entry.id().intValue();
+            for (String gram : trigrams(START_PADDING + entry.nameKey())) {
+                removePosting(nameGrams, gram, id);
+            }
+            for (String gram : trigrams(START_PADDING + entry.emailKey())) {
+                removePosting(emailGrams, gram, id);
+            }
+        }
+
+        private static void removePosting(Map<String, RoaringBitmap> postings, String gram, int id) {
+            RoaringBitmap bitmap = postings.get(gram);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private record Entry(Long id, String name, String email, Integer age, String nameKey, String emailKey) {
+
+        static Entry of(User user) {
+            return new Entry(user.getId(), user.getName(), user.getEmail(), user.getAge(),
+                    user.getName().toLowerCase(Locale.ROOT), user.getEmail().toLowerCase(Locale.ROOT));
+        }
+
+        // A detached copy without the password hash, shaped like the entity the endpoint always returned
+        User toUser() {
+            User user = new User(name, email, age);
+            user.setId(id);
+            return user;
+        }
+    }
+}
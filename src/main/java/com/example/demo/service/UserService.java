@@ -1,30 +1,87 @@
 package com.example.demo.service;
 
 import com.example.demo.model.User;
+import com.example.demo.repository.DraftJdbcRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.dto.AgeHistogramResponse;
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.UserRegistrationDto;
+import com.example.demo.dto.UserSummary;
+import com.example.demo.security.CredentialCache;
+import com.example.demo.security.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class UserService {
     
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    
     private final UserRepository userRepository;
+    private final DraftJdbcRepository draftJdbcRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CredentialCache credentialCache;
+    private final TokenService tokenService;
+    private final DraftResponseCache draftResponseCache;
+    private final ResourceVersions resourceVersions;
+    private final UserSearchIndex userSearchIndex;
+    private final UserAgeHistogram userAgeHistogram;
+    
+    // Verified against unknown emails so failed logins cost one BCrypt check either way
+    private final String dummyPasswordHash;
     
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, DraftJdbcRepository draftJdbcRepository,
+                       PasswordEncoder passwordEncoder,
+                       CredentialCache credentialCache, TokenService tokenService,
+                       DraftResponseCache draftResponseCache, ResourceVersions resourceVersions,
+                       UserSearchIndex userSearchIndex, UserAgeHistogram userAgeHistogram) {
         this.userRepository = userRepository;
+        this.draftJdbcRepository = draftJdbcRepository;
         this.passwordEncoder = passwordEncoder;
+        this.credentialCache = credentialCache;
+        this.tokenService = tokenService;
+        this.draftResponseCache = draftResponseCache;
+        this.resourceVersions = resourceVersions;
+        this.userSearchIndex = userSearchIndex;
+        this.userAgeHistogram = userAgeHistogram;
+        this.dummyPasswordHash = passwordEncoder.encode("dummy-password-for-timing");
     }
     
-    // Get all users
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Get one page of users as id/name/email projections, in id order
+    public CursorPage<UserSummary> getUserSummaries(String cursor, Integer size) {
+        int pageSize = CursorCodec.pageSize(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<UserSummary> users;
+        if (cursor == null || cursor.isEmpty()) {
+            users = userRepository.findFirstSummaryPage(limit);
+        } else {
+            long afterId;
+            try {
+                afterId = Long.parseLong(CursorCodec.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            users = userRepository.findSummaryPageAfter(afterId, limit);
+        }
+        
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = CursorCodec.encode(users.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(users, nextCursor);
     }
     
     // Get user by ID
@@ -39,7 +96,40 @@ public class UserService {
     
     // Create new user
     public User createUser(User user) {
-        return userRepository.save(user);
+        // A save can overwrite an existing account's name, password, email and age;
+        // read them before the save merges into the same persistence context
+        boolean replacing = false;
+        Integer previousAge = null;
+        String previousName = null;
+        String previousEmail = null;
+        if (user.getId() != null) {
+            Optional<User> existing = userRepository.findById(user.getId());
+            replacing = existing.isPresent();
+            previousAge = existing.map(User::getAge).orElse(null);
+            previousName = existing.map(User::getName).orElse(null);
+            previousEmail = existing.map(User::getEmail).orElse(null);
+        }
+        User savedUser = userRepository.save(user);
+        // Evicted once the new row is committed, so a login in between cannot re-cache the old password
+        credentialCache.evictAfterCommit(savedUser.getEmail());
+        if (previousEmail != null && !previousEmail.equals(savedUser.getEmail())) {
+            credentialCache.evictAfterCommit(previousEmail);
+        }
+        if (replacing) {
+            // Tokens issued to the replaced account must not outlive its old password or email
+            tokenService.revoke(previousEmail);
+            if (!Objects.equals(previousName, savedUser.getName()) || !previousEmail.equals(savedUser.getEmail())) {
+                draftsOfUserChanged(savedUser.getId());
+            }
+        }
+        userSearchIndex.put(savedUser);
+        if (replacing) {
+            userAgeHistogram.changed(previousAge, savedUser.getAge());
+        } else {
+            userAgeHistogram.added(savedUser.getAge());
+        }
+        resourceVersions.usersChanged();
+        return savedUser;
     }
     
     // Update user
@@ -47,21 +137,73 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        Integer previousAge = user.getAge();
+        String previousName = user.getName();
+        String previousEmail = user.getEmail();
         user.setName(userDetails.getName());
         user.setEmail(userDetails.getEmail());
         user.setAge(userDetails.getAge());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Cached logins and issued tokens are tied to the old email and must not outlive the change;
+        // both are dropped after the save so a login racing it cannot bring them back
+        credentialCache.evictAfterCommit(previousEmail);
+        tokenService.revoke(previousEmail);
+        if (!previousEmail.equals(savedUser.getEmail())) {
+            credentialCache.evictAfterCommit(savedUser.getEmail());
+        }
+        if (!Objects.equals(previousName, savedUser.getName()) || !previousEmail.equals(savedUser.getEmail())) {
+            draftsOfUserChanged(id);
+        }
+        userSearchIndex.put(savedUser);
+        userAgeHistogram.changed(previousAge, savedUser.getAge());
+        resourceVersions.usersChanged();
+        return savedUser;
     }
     
     // Delete user
     public void deleteUser(Long id) {
+        Optional<User> existing = userRepository.findById(id);
         userRepository.deleteById(id);
+        existing.ifPresent(user -> {
+            credentialCache.evictAfterCommit(user.getEmail());
+            tokenService.revoke(user.getEmail());
+            draftsOfUserChanged(id);
+        });
+        userSearchIndex.remove(id);
+        existing.ifPresent(user -> userAgeHistogram.removed(user.getAge()));
+        resourceVersions.usersChanged();
     }
     
-    // Search users by name
-    public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContainingIgnoreCase(name);
+    // Draft bodies embed their users' names and emails: move the versions (and so the ETags) of just the
+    // drafts this user is in and drop their cached bodies; other drafts keep their ETags
+    private void draftsOfUserChanged(Long userId) {
+        if (draftJdbcRepository.bumpVersionsOfDraftsByUser(userId) > 0) {
+            resourceVersions.draftsChanged();
+        }
+        draftResponseCache.evictDraftsOfUser(userId);
+    }
+    
+    // Search users whose name (or name or email) contains the query, or starts with it, in id order.
+    // Served from the in-memory index; the database is only queried while the index is warming and for
+    // substring queries shorter than three characters, which the trigram index cannot narrow.
+    public List<User> searchUsers(String query, boolean includeEmail, boolean prefix, Integer limit) {
+        int resultLimit = CursorCodec.pageSize(limit, DEFAULT_SEARCH_LIMIT, MAX_SEARCH_LIMIT);
+        UserSearchIndex.Field field = includeEmail ? UserSearchIndex.Field.NAME_OR_EMAIL : UserSearchIndex.Field.NAME;
+        return userSearchIndex.search(query, field, prefix, resultLimit)
+                .orElseGet(() -> searchUsersInDatabase(query, includeEmail, prefix, resultLimit));
+    }
+    
+    private List<User> searchUsersInDatabase(String query, boolean includeEmail, boolean prefix, int limit) {
+        PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+        if (includeEmail) {
+            return prefix
+                    ? userRepository.findByNameStartingWithIgnoreCaseOrEmailStartingWithIgnoreCase(query, query, page)
+                    : userRepository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query, page);
+        }
+        return prefix
+                ? userRepository.findByNameStartingWithIgnoreCase(query, page)
+                : userRepository.findByNameContainingIgnoreCase(query, page);
     }
     
     // Get users by age range
@@ -69,6 +211,44 @@ public class UserService {
         return userRepository.findUsersByAgeBetween(minAge, maxAge);
     }
     
+    // Get one page of ids of users in an age range, ordered by (age, id) so pages seek along idx_users_age_id
+    public CursorPage<Long> getUserIdsByAgeRange(Integer minAge, Integer maxAge, String cursor, Integer size) {
+        if (minAge > maxAge) {
+            throw new IllegalArgumentException("minAge must not be greater than maxAge");
+        }
+        int pageSize = CursorCodec.pageSize(size, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<UserRepository.AgeKey> keys;
+        if (cursor == null || cursor.isEmpty()) {
+            keys = userRepository.findFirstAgeKeyPage(minAge, maxAge, limit);
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            int afterAge;
+            long afterId;
+            try {
+                afterAge = Integer.parseInt(position[0]);
+                afterId = Long.parseLong(position[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            keys = userRepository.findAgeKeyPageAfter(minAge, maxAge, afterAge, afterId, limit);
+        }
+        
+        String nextCursor = null;
+        if (keys.size() > pageSize) {
+            keys = keys.subList(0, pageSize);
+            UserRepository.AgeKey last = keys.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.age(), last.id());
+        }
+        return new CursorPage<>(keys.stream().map(UserRepository.AgeKey::id).toList(), nextCursor);
+    }
+    
+    // Users per age bucket, from memory
+    public AgeHistogramResponse getAgeHistogram(int bucketSize) {
+        return userAgeHistogram.snapshot(bucketSize);
+    }
+    
     // Register new user
     public User registerUser(UserRegistrationDto registrationDto) {
         // Check if user already exists
@@ -84,17 +264,25 @@ public class UserService {
             registrationDto.getAge()
         );
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.put(savedUser);
+        userAgeHistogram.added(savedUser.getAge());
+        resourceVersions.usersChanged();
+        return savedUser;
+    }
+    
+    // Authenticate user and return it in a single lookup
+    public Optional<User> authenticate(String email, String password) {
+        Optional<User> userOpt = email != null ? userRepository.findByEmail(email) : Optional.empty();
+        String hash = userOpt.map(User::getPassword).orElse(dummyPasswordHash);
+        boolean matches = password != null && passwordEncoder.matches(password, hash);
+        
+        return matches ? userOpt : Optional.empty();
     }
     
     // Authenticate user
     public boolean authenticateUser(String email, String password) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            return passwordEncoder.matches(password, user.getPassword());
-        }
-        return false;
+        return authenticate(email, password).isPresent();
     }
     
     // Find user by email
@@ -0,0 +1,8 @@
+package com.example.demo.service;
+
+// Strategy for drawing winners: picks k distinct positions out of n participants,
+// uniformly at random and in random order
+public interface WinnerSelector {
+
+    int[] select(int participantCount, int numberOfWinners);
+}
@@ -0,0 +1,149 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.dto.UserRegistrationDto;
+import com.example.demo.model.User;
+import com.example.demo.service.DraftService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The 304 contract of the draft and user endpoints: a matching If-None-Match is answered without a body
+// until the resource itself changes
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:conditional_get;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.enabled=false"
+})
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+	private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+			.encodeToString("john.doe@example.com:password123".getBytes(StandardCharsets.UTF_8));
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DraftService draftService;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void draftListIsNotModifiedForAMatchingETag() throws Exception {
+		String etag = etag("/api/drafts");
+
+		mockMvc.perform(get("/api/drafts").header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void singleDraftIsNotModifiedForAMatchingETag() throws Exception {
+		Long draftId = createDraft(List.of(1L, 2L));
+		String etag = etag("/api/drafts/" + draftId);
+
+		expectNotModified("/api/drafts/" + draftId, etag);
+	}
+
+	@Test
+	void singleUserIsNotModifiedForAMatchingETag() throws Exception {
+		String etag = etag("/api/users/2");
+
+		expectNotModified("/api/users/2", etag);
+	}
+
+	@Test
+	void executingOrCancellingADraftChangesItsETag() throws Exception {
+		Long executed = createDraft(List.of(1L, 2L, 3L));
+		Long cancelled = createDraft(List.of(1L, 2L, 3L));
+		String executedETag = etag("/api/drafts/" + executed);
+		String cancelledETag = etag("/api/drafts/" + cancelled);
+
+		draftService.executeDraft(executed);
+		draftService.cancelDraft(cancelled);
+
+		assertNotEquals(executedETag, expectModified("/api/drafts/" + executed, executedETag));
+		assertNotEquals(cancelledETag, expectModified("/api/drafts/" + cancelled, cancelledETag));
+	}
+
+	@Test
+	void updatingAUserChangesOnlyTheETagsOfDraftsTheyAreIn() throws Exception {
+		User renamed = userService.createUser(new User("Robin Rename", "robin.rename@example.com", "x", 30));
+		User untouched = userService.createUser(new User("Kim Keep", "kim.keep@example.com", "x", 30));
+		Long renamedDraft = createDraft(List.of(renamed.getId()));
+		Long otherDraft = createDraft(List.of(untouched.getId()));
+		String renamedETag = etag("/api/drafts/" + renamedDraft);
+		String otherETag = etag("/api/drafts/" + otherDraft);
+
+		mockMvc.perform(put("/api/users/" + renamed.getId()).header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Robin Renamed\",\"email\":\"robin.rename@example.com\",\"age\":30}"))
+				.andExpect(status().isOk());
+
+		MvcResult result = mockMvc.perform(get("/api/drafts/" + renamedDraft)
+						.header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+						.header(HttpHeaders.IF_NONE_MATCH, renamedETag))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertTrue(result.getResponse().getContentAsString().contains("Robin Renamed"));
+		assertNotEquals(renamedETag, result.getResponse().getHeader(HttpHeaders.ETAG));
+		expectNotModified("/api/drafts/" + otherDraft, otherETag);
+	}
+
+	@Test
+	void newUsersLeaveDraftETagsAlone() throws Exception {
+		Long draftId = createDraft(List.of(1L, 2L));
+		String draftETag = etag("/api/drafts/" + draftId);
+		String listETag = etag("/api/drafts");
+
+		userService.registerUser(new UserRegistrationDto("Nia New", "nia.new@example.com", "password123", 22));
+
+		expectNotModified("/api/drafts/" + draftId, draftETag);
+		expectNotModified("/api/drafts", listETag);
+	}
+
+	private Long createDraft(List<Long> participantIds) {
+		return draftService.createDraft(new DraftCreateRequest("ETag draft", "Conditional GET test", 1, participantIds))
+				.getId();
+	}
+
+	private String etag(String path) throws Exception {
+		String etag = mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, AUTHORIZATION))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		return etag;
+	}
+
+	private void expectNotModified(String path, String etag) throws Exception {
+		mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	// The new ETag of a resource that must no longer match the old one
+	private String expectModified(String path, String etag) throws Exception {
+		return mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.EligibilityRules;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Eligibility rules against the seeded users (John Doe 28, Jane Smith 25, Bob Johnson 32,
+// Alice Brown 29 - the winner of the seeded executed draft - and Charlie Wilson 35) plus a few added here
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:draft_participants;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.enabled=false"
+})
+class DraftParticipantJdbcRepositoryTests {
+
+	@Autowired
+	private DraftParticipantJdbcRepository participantJdbcRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void addUsers() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE '%@eligibility.test'", Integer.class) == 0) {
+			jdbcTemplate.update("INSERT INTO users (name, email, password, age) VALUES "
+					+ "('Max_Power', 'max@eligibility.test', 'x', 40), "
+					+ "('Max Power', 'maxi@eligibility.test', 'x', 40), "
+					+ "('100% Real', 'real@eligibility.test', 'x', NULL)");
+		}
+	}
+
+	@Test
+	void ageBoundsAreInclusiveAndSkipUnknownAges() {
+		assertEquals(List.of("Alice Brown", "Bob Johnson", "John Doe"), eligibleNames(rules(28, 32, null, null)));
+		assertEquals(List.of("Charlie Wilson", "Max Power", "Max_Power"), eligibleNames(rules(35, null, null, null)));
+		assertEquals(List.of("Jane Smith"), eligibleNames(rules(null, 25, null, null)));
+	}
+
+	@Test
+	void namePatternIsACaseInsensitiveLikePattern() {
+		assertEquals(List.of("Bob Johnson", "John Doe"), eligibleNames(rules(null, null, "%JOHN%", null)));
+		assertEquals(List.of("Max Power", "Max_Power"), eligibleNames(rules(null, null, "max_power", null)));
+		assertEquals(List.of("Max_Power"), eligibleNames(rules(null, null, "max\\_power", null)));
+		assertEquals(List.of("100% Real"), eligibleNames(rules(null, null, "%\\%%", null)));
+	}
+
+	@Test
+	void excludePreviousWinnersSkipsWinnersOfAnyDraft() {
+		List<String> names = eligibleNames(rules(null, null, null, true));
+
+		assertEquals(7, names.size());
+		assertEquals(List.of(), eligibleNames(rules(29, 29, null, true)));
+	}
+
+	@Test
+	void rulesCombineAndCountMatchesTheStream() {
+		EligibilityRules rules = rules(26, 40, "%o%", true);
+
+		assertEquals(List.of("Bob Johnson", "Charlie Wilson", "John Doe", "Max Power", "Max_Power"), eligibleNames(rules));
+		assertEquals(5, participantJdbcRepository.countEligibleUsers(rules));
+	}
+
+	private List<String> eligibleNames(EligibilityRules rules) {
+		List<Long> ids = new ArrayList<>();
+		participantJdbcRepository.forEachEligibleUserId(rules, ids::add);
+		return ids.stream()
+				.map(id -> jdbcTemplate.queryForObject("SELECT name FROM users WHERE id = ?", String.class, id))
+				.sorted()
+				.toList();
+	}
+
+	private static EligibilityRules rules(Integer minAge, Integer maxAge, String namePattern, Boolean excludePreviousWinners) {
+		return new EligibilityRules(minAge, maxAge, namePattern, excludePreviousWinners);
+	}
+}
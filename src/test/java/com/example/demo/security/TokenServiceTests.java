@@ -0,0 +1,109 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenServiceTests {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00.123Z"));
+	private final TokenService tokenService = new TokenService(SECRET, Duration.ofHours(1), clock);
+
+	@Test
+	void issuedTokenVerifies() {
+		String token = tokenService.issue(7L, "a:b@example.com").token();
+
+		TokenService.TokenClaims claims = tokenService.verify(token).orElseThrow();
+		assertEquals(7L, claims.userId());
+		assertEquals("a:b@example.com", claims.email());
+		assertEquals(clock.instant(), claims.issuedAt());
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String token = tokenService.issue(7L, "user@example.com").token();
+
+		clock.advance(Duration.ofHours(1).minusMillis(1));
+		assertTrue(tokenService.verify(token).isPresent());
+		clock.advance(Duration.ofMillis(1));
+		assertTrue(tokenService.verify(token).isEmpty());
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = tokenService.issue(7L, "user@example.com").token();
+		String otherSignature = new TokenService(SECRET.replace('0', '1'), Duration.ofHours(1), clock)
+				.issue(7L, "user@example.com").token();
+		char first = token.charAt(0);
+
+		assertTrue(tokenService.verify((first == 'A' ? 'B' : 'A') + token.substring(1)).isEmpty());
+		assertTrue(tokenService.verify(otherSignature).isEmpty());
+		assertTrue(tokenService.verify(token + ".x").isEmpty());
+		assertTrue(tokenService.verify("not-a-token").isEmpty());
+	}
+
+	@Test
+	void revokeRejectsTokensUpToTheSameMillisecond() {
+		String before = tokenService.issue(7L, "user@example.com").token();
+		tokenService.revoke("user@example.com");
+		String sameMillisecond = tokenService.issue(7L, "user@example.com").token();
+		clock.advance(Duration.ofMillis(1));
+		String after = tokenService.issue(7L, "user@example.com").token();
+
+		assertTrue(tokenService.verify(before).isEmpty());
+		assertTrue(tokenService.verify(sameMillisecond).isEmpty());
+		assertTrue(tokenService.verify(after).isPresent());
+	}
+
+	@Test
+	void revocationsOlderThanTheTtlArePruned() {
+		tokenService.revoke("old@example.com");
+		clock.advance(Duration.ofHours(2));
+		tokenService.revoke("new@example.com");
+
+		assertEquals(1, tokenService.revokedCount());
+	}
+
+	@Test
+	void shortSecretIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new TokenService("too-short", Duration.ofHours(1), clock));
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now;
+
+		private MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.dto.DraftResponse;
+import com.example.demo.dto.DraftSummary;
+import com.example.demo.model.Draft.ParticipantMode;
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bitmap_drafts;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.enabled=false"
+})
+class BitmapDraftTests {
+
+	@Autowired
+	private DraftService draftService;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void participantListingsIncludeBitmapDraftsInOrder() {
+		Long member = createUser("Bea Bitmap", "bea.bitmap@example.com");
+		Long other = createUser("Oli Other", "oli.other@example.com");
+		Long oldest = createDraft(ParticipantMode.BITMAP, List.of(member, other));
+		Long middle = createDraft(ParticipantMode.JOIN_TABLE, List.of(member, 1L));
+		Long newest = createDraft(ParticipantMode.BITMAP, List.of(member));
+		createDraft(ParticipantMode.BITMAP, List.of(other));
+
+		CursorPage<DraftSummary> first = draftService.getDraftSummariesByParticipant(member, null, 2);
+		CursorPage<DraftSummary> second = draftService.getDraftSummariesByParticipant(member, first.nextCursor(), 2);
+
+		assertEquals(List.of(newest, middle), ids(first));
+		assertEquals(List.of(oldest), ids(second));
+		assertNull(second.nextCursor());
+		assertEquals(List.of(newest, middle, oldest),
+				draftService.getDraftsByParticipant(member, null, 10).items().stream().map(DraftResponse::getId).toList());
+	}
+
+	@Test
+	void negativeParticipantCursorIsRejected() {
+		Long draftId = createDraft(ParticipantMode.BITMAP, List.of(1L, 2L));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> draftService.getParticipants(draftId, CursorCodec.encode(-5L), 10));
+		assertEquals(List.of(2L), draftService.getParticipants(draftId, CursorCodec.encode(1L), 10).items().stream()
+				.map(DraftResponse.UserDto::getId).toList());
+	}
+
+	private Long createUser(String name, String email) {
+		return userService.createUser(new User(name, email, "x", 30)).getId();
+	}
+
+	private Long createDraft(ParticipantMode mode, List<Long> participantIds) {
+		DraftCreateRequest request = new DraftCreateRequest(mode + " draft", "Bitmap test", 1, participantIds);
+		request.setParticipantMode(mode);
+		return draftService.createDraft(request).getId();
+	}
+
+	private static List<Long> ids(CursorPage<DraftSummary> page) {
+		return page.items().stream().map(DraftSummary::getId).toList();
+	}
+}
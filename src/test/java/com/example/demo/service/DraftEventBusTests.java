@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DraftEvent;
+import com.example.demo.model.Draft.DraftStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DraftEventBusTests {
+
+	private static final int BUFFER_SIZE = 4;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private DraftEventBus eventBus;
+
+	@BeforeEach
+	void setUp() {
+		eventBus = new DraftEventBus(1, BUFFER_SIZE, 100, Duration.ofMinutes(1), meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		eventBus.shutdown();
+	}
+
+	@Test
+	void slowSubscriberKeepsTheNewestEventsAndIsToldHowManyWereDropped() throws Exception {
+		RecordingEmitter emitter = new RecordingEmitter();
+		eventBus.subscribe(emitter);
+
+		// The first event is taken off the buffer and its send blocks, so the next ones pile up behind it
+		eventBus.publish(event(1L));
+		assertTrue(emitter.firstSendStarted.await(5, TimeUnit.SECONDS));
+		for (long draftId = 2; draftId <= 11; draftId++) {
+			eventBus.publish(event(draftId));
+		}
+		emitter.releaseFirstSend.countDown();
+
+		awaitSent(emitter, 6);
+		assertEquals(List.of("draft:1", "draft:8", "draft:9", "draft:10", "draft:11", "overflow:6"), emitter.sent);
+		assertEquals(6.0, meterRegistry.get("draft.events.dropped").counter().count());
+	}
+
+	@Test
+	void subscriberIsRemovedWhenSendingFails() throws Exception {
+		RecordingEmitter emitter = new RecordingEmitter();
+		emitter.failSends = true;
+		emitter.releaseFirstSend.countDown();
+		eventBus.subscribe(emitter);
+		assertEquals(1.0, subscribers());
+
+		eventBus.publish(event(1L));
+
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (subscribers() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(0.0, subscribers());
+	}
+
+	private double subscribers() {
+		return meterRegistry.get("draft.events.subscribers").gauge().value();
+	}
+
+	private static DraftEvent event(Long draftId) {
+		return new DraftEvent(draftId, DraftStatus.PENDING, Instant.now());
+	}
+
+	private static void awaitSent(RecordingEmitter emitter, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (emitter.sent.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	// Records "name:payload" for each event sent instead of writing to a response
+	private static final class RecordingEmitter extends SseEmitter {
+
+		private final List<String> sent = new CopyOnWriteArrayList<>();
+		private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+		private final CountDownLatch releaseFirstSend = new CountDownLatch(1);
+		private volatile boolean failSends;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			firstSendStarted.countDown();
+			try {
+				releaseFirstSend.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			if (failSends) {
+				throw new IOException("Client went away");
+			}
+			String name = null;
+			Object payload = null;
+			for (var part : builder.build()) {
+				if (part.getData() instanceof String text && text.contains("event:")) {
+					name = text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:")));
+				} else if (!(part.getData() instanceof String)) {
+					payload = part.getData() instanceof DraftEvent event ? event.draftId() : part.getData();
+				}
+			}
+			sent.add(name + ":" + payload);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DraftExecutionJob;
+import com.example.demo.repository.DraftRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DraftExecutionJobServiceTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final DraftService draftService = mock(DraftService.class);
+	private final DraftRepository draftRepository = mock(DraftRepository.class);
+	// One worker and a one-slot queue on each pool
+	private final DraftExecutionJobService jobService =
+			new DraftExecutionJobService(draftService, draftRepository, 1, 1, Duration.ofHours(1), 100, 1, 1);
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		jobService.shutdown();
+	}
+
+	@Test
+	void burstOfScheduledDraftsDoesNotRejectApiJobs() throws InterruptedException {
+		CountDownLatch scheduledDone = new CountDownLatch(2);
+		doAnswer(invocation -> {
+			release.await();
+			return null;
+		}).when(draftService).executeScheduledDraft(anyLong());
+		when(draftRepository.existsById(anyLong())).thenReturn(true);
+
+		jobService.submitScheduled(1L, scheduledDone::countDown);
+		jobService.submitScheduled(2L, scheduledDone::countDown);
+		assertThrows(RejectedExecutionException.class, () -> jobService.submitScheduled(3L, () -> {}));
+
+		DraftExecutionJob job = jobService.submit(4L);
+		assertEquals(job, jobService.getJob(job.getJobId()).orElseThrow());
+
+		release.countDown();
+		assertTrue(scheduledDone.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failedScheduledDraftStillCompletes() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			throw new IllegalStateException("Not enough participants");
+		}).when(draftService).executeScheduledDraft(anyLong());
+
+		jobService.submitScheduled(1L, done::countDown);
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.DraftController;
+import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.dto.DraftResponse;
+import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.repository.DraftRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:draft_execution;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.enabled=false"
+})
+class DraftExecutionTests {
+
+	private static final int WINNERS = 2;
+
+	@Autowired
+	private DraftService draftService;
+
+	@Autowired
+	private DraftController draftController;
+
+	@Autowired
+	private DraftRepository draftRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentExecutionsDrawOneWinnerSet() throws Exception {
+		Long draftId = createDraft();
+		int callers = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(callers);
+		List<Future<DraftResponse>> results = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return draftService.executeDraft(draftId);
+			}));
+		}
+		start.countDown();
+
+		int succeeded = 0;
+		for (Future<DraftResponse> result : results) {
+			try {
+				result.get();
+				succeeded++;
+			} catch (Exception e) {
+				assertEquals(IllegalStateException.class, e.getCause().getClass());
+			}
+		}
+		pool.shutdown();
+
+		assertEquals(1, succeeded);
+		assertEquals(DraftStatus.EXECUTED, draftRepository.findById(draftId).orElseThrow().getStatus());
+		assertEquals(WINNERS, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM draft_winners WHERE draft_id = ?", Integer.class, draftId));
+	}
+
+	@Test
+	void repeatedExecuteWithSameKeyReplaysTheResult() {
+		Long draftId = createDraft();
+		Principal principal = () -> "john.doe@example.com";
+
+		ResponseEntity<?> first = draftController.executeDraft(draftId, false, "execute-" + draftId, principal);
+		ResponseEntity<?> second = draftController.executeDraft(draftId, false, "execute-" + draftId, principal);
+
+		assertEquals(200, first.getStatusCode().value());
+		assertEquals(200, second.getStatusCode().value());
+		assertEquals(winnerIds(first), winnerIds(second));
+		assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+	}
+
+	@Test
+	void staleClaimsAreReleased() {
+		Long draftId = createDraft();
+		jdbcTemplate.update("UPDATE drafts SET status = 'EXECUTING', execution_claimed_at = ? WHERE id = ?",
+				LocalDateTime.now().minusHours(1), draftId);
+
+		assertEquals(List.of(draftId), draftService.releaseStaleExecutions());
+		assertEquals(DraftStatus.PENDING, draftRepository.findById(draftId).orElseThrow().getStatus());
+		assertNull(draftRepository.findById(draftId).orElseThrow().getExecutionClaimedAt());
+		assertEquals(WINNERS, draftService.executeDraft(draftId).getWinners().size());
+	}
+
+	private Long createDraft() {
+		DraftCreateRequest request = new DraftCreateRequest("Execution test", "Execution test", WINNERS, null);
+		return draftService.createDraft(request).getId();
+	}
+
+	private static List<Long> winnerIds(ResponseEntity<?> response) {
+		return ((DraftResponse) response.getBody()).getWinners().stream().map(winner -> winner.getId()).toList();
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.model.Draft.DraftStatus;
+import com.example.demo.model.Draft.ParticipantMode;
+import com.example.demo.repository.DraftRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:draft_scheduler;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.poll-interval=200ms"
+})
+class DraftSchedulerTests {
+
+	@Autowired
+	private DraftService draftService;
+
+	@Autowired
+	private DraftRepository draftRepository;
+
+	@Test
+	void executesDueDraftsInBothParticipantModes() throws InterruptedException {
+		Long joinTableDraft = createDueDraft(ParticipantMode.JOIN_TABLE);
+		Long bitmapDraft = createDueDraft(ParticipantMode.BITMAP);
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (System.currentTimeMillis() < deadline
+				&& (status(joinTableDraft) != DraftStatus.EXECUTED || status(bitmapDraft) != DraftStatus.EXECUTED)) {
+			Thread.sleep(100);
+		}
+
+		assertEquals(DraftStatus.EXECUTED, status(joinTableDraft));
+		assertEquals(DraftStatus.EXECUTED, status(bitmapDraft));
+		assertEquals(1, draftService.getDraftById(bitmapDraft).getWinners().size());
+	}
+
+	private Long createDueDraft(ParticipantMode mode) {
+		DraftCreateRequest request = new DraftCreateRequest("Scheduled " + mode, "Scheduler test", 1, null);
+		request.setParticipantMode(mode);
+		request.setScheduledAt(LocalDateTime.now().minusSeconds(1));
+		return draftService.createDraft(request).getId();
+	}
+
+	private DraftStatus status(Long draftId) {
+		return draftRepository.findById(draftId).orElseThrow().getStatus();
+	}
+}
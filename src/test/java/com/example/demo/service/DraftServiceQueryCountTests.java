@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.DraftCreateRequest;
+import com.example.demo.dto.DraftResponse;
+import com.example.demo.model.Draft.DraftStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:draft_query_count;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional
+class DraftServiceQueryCountTests {
+
+	@Autowired
+	private DraftService draftService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void keysetPagesWalkAllDraftsWithoutOverlap() {
+		createDrafts(7);
+		int total = draftService.getAllDrafts(null, DraftService.MAX_PAGE_SIZE).items().size();
+
+		Set<Long> seen = new HashSet<>();
+		String cursor = null;
+		do {
+			CursorPage<DraftResponse> page = draftService.getAllDrafts(cursor, 3);
+			page.items().forEach(draft -> assertTrue(seen.add(draft.getId())));
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertEquals(total, seen.size());
+	}
+
+	@Test
+	void listEndpointsUseConstantQueryCount() {
+		createDrafts(5);
+		long fewDrafts = countQueries(() -> draftService.getAllDrafts(null, DraftService.MAX_PAGE_SIZE).items());
+
+		createDrafts(30);
+		long manyDrafts = countQueries(() -> draftService.getAllDrafts(null, DraftService.MAX_PAGE_SIZE).items());
+
+		// One query for the drafts, one per join table
+		assertEquals(3, fewDrafts);
+		assertEquals(fewDrafts, manyDrafts);
+		assertEquals(3, countQueries(() -> draftService.getDraftsByStatus(DraftStatus.PENDING, null, 10).items()));
+		// Per-user pages read the summary page first, then load just its drafts
+		assertEquals(4, countQueries(() -> draftService.getDraftsByParticipant(1L, null, 10).items()));
+		assertEquals(4, countQueries(() -> draftService.getDraftsByWinner(4L, null, 10).items()));
+	}
+
+	private void createDrafts(int count) {
+		for (int i = 0; i < count; i++) {
+			draftService.createDraft(new DraftCreateRequest("Draft " + i, "Query count test", 1, null));
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private long countQueries(Supplier<List<DraftResponse>> call) {
+		entityManager.clear();
+		statistics.clear();
+		List<DraftResponse> drafts = call.get();
+		assertFalse(drafts.isEmpty());
+		drafts.forEach(draft -> assertFalse(draft.getParticipants().isEmpty()));
+		return statistics.getPrepareStatementCount();
+	}
+}
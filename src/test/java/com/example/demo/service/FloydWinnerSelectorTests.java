@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloydWinnerSelectorTests {
+
+	private final FloydWinnerSelector selector = new FloydWinnerSelector();
+
+	@Test
+	void picksDistinctPositionsInRange() {
+		for (int k = 0; k <= 20; k++) {
+			int[] picks = selector.select(20, k);
+			Set<Integer> distinct = new HashSet<>();
+			for (int pick : picks) {
+				assertTrue(pick >= 0 && pick < 20);
+				distinct.add(pick);
+			}
+			assertEquals(k, distinct.size());
+		}
+	}
+
+	@Test
+	void everyPositionIsEquallyLikely() {
+		int participants = 10;
+		int rounds = 50_000;
+		int[] hits = new int[participants];
+		for (int round = 0; round < rounds; round++) {
+			for (int pick : selector.select(participants, 3)) {
+				hits[pick]++;
+			}
+		}
+
+		// Expected 15,000 hits per position; allow a generous 5% band
+		double expected = rounds * 3.0 / participants;
+		for (int count : hits) {
+			assertTrue(Math.abs(count - expected) < expected * 0.05, "Biased position count: " + count);
+		}
+	}
+
+	@Test
+	void rejectsMoreWinnersThanParticipants() {
+		assertThrows(IllegalArgumentException.class, () -> selector.select(2, 3));
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.security.CachingAuthenticationProvider;
+import com.example.demo.security.CredentialCache;
+import com.example.demo.security.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:user_credentials;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.enabled=false"
+})
+class UserCredentialChangeTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private CredentialCache credentialCache;
+
+	@Autowired
+	private TokenService tokenService;
+
+	// Same chain as SecurityConfig: credential cache in front of the user lookup + BCrypt check
+	private AuthenticationProvider authenticationProvider;
+
+	@BeforeEach
+	void setUp() {
+		DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+		daoProvider.setUserDetailsService(userDetailsService);
+		daoProvider.setPasswordEncoder(passwordEncoder);
+		authenticationProvider = new CachingAuthenticationProvider(daoProvider, credentialCache);
+	}
+
+	@Test
+	void oldPasswordIsRejectedRightAfterTheChange() {
+		User user = userService.createUser(new User("Pat Change", "pat.change@example.com",
+				passwordEncoder.encode("old-password"), 40));
+		assertTrue(login("pat.change@example.com", "old-password").isAuthenticated());
+
+		User replacement = new User("Pat Change", "pat.change@example.com", passwordEncoder.encode("new-password"), 40);
+		replacement.setId(user.getId());
+		userService.createUser(replacement);
+
+		assertThrows(BadCredentialsException.class, () -> login("pat.change@example.com", "old-password"));
+		assertTrue(login("pat.change@example.com", "new-password").isAuthenticated());
+	}
+
+	@Test
+	void tokensOfAReplacedAccountAreRevoked() {
+		User user = userService.createUser(new User("Lee Token", "lee.token@example.com",
+				passwordEncoder.encode("old-password"), 31));
+		String token = tokenService.issue(user.getId(), user.getEmail()).token();
+		assertTrue(tokenService.verify(token).isPresent());
+
+		User replacement = new User("Lee Token", "lee.other@example.com", passwordEncoder.encode("new-password"), 31);
+		replacement.setId(user.getId());
+		userService.createUser(replacement);
+
+		assertFalse(tokenService.verify(token).isPresent());
+	}
+
+	@Test
+	void oldEmailIsRejectedRightAfterTheChange() {
+		User user = userService.createUser(new User("Sam Move", "sam.old@example.com",
+				passwordEncoder.encode("password"), 35));
+		assertTrue(login("sam.old@example.com", "password").isAuthenticated());
+
+		userService.updateUser(user.getId(), new User("Sam Move", "sam.new@example.com", 35));
+
+		assertThrows(BadCredentialsException.class, () -> login("sam.old@example.com", "password"));
+		assertTrue(login("sam.new@example.com", "password").isAuthenticated());
+	}
+
+	private Authentication login(String email, String password) {
+		return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserImportProgress;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserJdbcRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserImportService.ImportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Imports run against the seeded users (john.doe@example.com, alice.brown@example.com, ...) in batches of two,
+// so duplicates are seen both within a batch and across already committed batches
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:user_import;DB_CLOSE_DELAY=-1",
+		"app.draft.scheduler.enabled=false",
+		"app.user-import.batch-size=2"
+})
+class UserImportServiceTests {
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserJdbcRepository userJdbcRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void importsCsvWithQuotedFieldsAndCountsSkippedRows() throws IOException {
+		String csv = "\uFEFFName,Email,Password,Age\n"
+				+ "\"Doe, Jane\",jane.import@example.com,secret1,30\n"
+				+ "\"Quote \"\"Q\"\" Person\",q.person@example.com,\"pa,ss\",41\n"
+				+ "Repeat Person,jane.import@example.com,secret2,22\n"
+				+ "John Again,john.doe@example.com,secret3,28\n"
+				+ "\n"
+				+ "Bad Age,bad.age@example.com,secret4,abc\n"
+				+ "No Password,no.password@example.com,,33\n";
+		List<Long> processedAtEachUpdate = new ArrayList<>();
+
+		UserImportProgress progress = userImportService.importUsers(new StringReader(csv), ImportFormat.CSV,
+				update -> processedAtEachUpdate.add(update.getProcessed()));
+
+		assertEquals(6, progress.getProcessed());
+		assertEquals(2, progress.getImported());
+		assertEquals(2, progress.getDuplicates());
+		assertEquals(2, progress.getInvalid());
+		assertEquals(List.of("line 7: age must be a number", "line 8: password is required"), progress.getErrors());
+		assertTrue(progress.isDone());
+		assertEquals(List.of(2L, 4L, 6L, 6L), processedAtEachUpdate);
+
+		User jane = userRepository.findByEmail("jane.import@example.com").orElseThrow();
+		assertEquals("Doe, Jane", jane.getName());
+		assertEquals(30, jane.getAge());
+		assertTrue(passwordEncoder.matches("secret1", jane.getPassword()));
+		User quoted = userRepository.findByEmail("q.person@example.com").orElseThrow();
+		assertEquals("Quote \"Q\" Person", quoted.getName());
+		assertTrue(passwordEncoder.matches("pa,ss", quoted.getPassword()));
+		assertEquals("John Doe", userRepository.findByEmail("john.doe@example.com").orElseThrow().getName());
+	}
+
+	@Test
+	void importsNdjsonAndKeepsTheFirstOfRepeatedEmails() throws IOException {
+		String ndjson = "{\"name\":\"Nora Json\",\"email\":\"nora@example.com\",\"password\":\"pw1\",\"age\":27}\n"
+				+ "{\"name\":\"Nora Again\",\"email\":\"nora@example.com\",\"password\":\"pw2\"}\n"
+				+ "\n"
+				+ "{\"name\":\"Broken\",\n"
+				+ "{\"name\":\"Alice Again\",\"email\":\"alice.brown@example.com\",\"password\":\"pw3\"}\n"
+				+ "{\"name\":\"\",\"email\":\"nameless@example.com\",\"password\":\"pw4\"}\n";
+
+		UserImportProgress progress = userImportService.importUsers(new StringReader(ndjson), ImportFormat.NDJSON,
+				update -> {});
+
+		assertEquals(5, progress.getProcessed());
+		assertEquals(1, progress.getImported());
+		assertEquals(2, progress.getDuplicates());
+		assertEquals(2, progress.getInvalid());
+		assertEquals(List.of("line 4: malformed JSON", "line 6: name is required"), progress.getErrors());
+		assertEquals("Nora Json", userRepository.findByEmail("nora@example.com").orElseThrow().getName());
+		assertTrue(userRepository.findByEmail("nameless@example.com").isEmpty());
+	}
+
+	@Test
+	void csvWithoutRequiredColumnsIsRejectedBeforeImporting() {
+		assertThrows(IllegalArgumentException.class, () -> userImportService.importUsers(
+				new StringReader("name,email\nNo Column,no.column@example.com\n"), ImportFormat.CSV, update -> {}));
+		assertThrows(IllegalArgumentException.class, () -> userImportService.importUsers(
+				new StringReader(""), ImportFormat.CSV, update -> {}));
+		assertTrue(userRepository.findByEmail("no.column@example.com").isEmpty());
+	}
+
+	@Test
+	void existingEmailsAreFoundAcrossInListChunks() {
+		List<String> emails = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			emails.add("missing" + i + "@example.com");
+		}
+		emails.add(1200, "john.doe@example.com");
+		emails.add("charlie.wilson@example.com");
+
+		assertEquals(Set.of("john.doe@example.com", "charlie.wilson@example.com"),
+				userJdbcRepository.findExistingEmails(emails));
+	}
+}
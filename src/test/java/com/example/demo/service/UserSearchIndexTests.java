@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserJdbcRepository;
+import com.example.demo.service.UserSearchIndex.Field;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSearchIndexTests {
+
+	private final List<User> stored = new ArrayList<>(List.of(
+			user(1L, "John Doe", "john.doe@example.com"),
+			user(2L, "Jane Smith", "jane.smith@example.com"),
+			user(3L, "Bob Johnson", "bob.johnson@example.com"),
+			user(4L, "Alice Brown", "alice@brown.org")));
+
+	private UserSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		UserJdbcRepository repository = new UserJdbcRepository(null) {
+			@Override
+			public void forEachUser(Consumer<User> consumer) {
+				stored.forEach(consumer);
+			}
+		};
+		index = new UserSearchIndex(repository, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void emptyUntilBuilt() {
+		assertTrue(index.search("john", Field.NAME, false, 10).isEmpty());
+		index.build();
+		assertEquals(List.of(1L, 3L), ids("JOHN", Field.NAME, false, 10));
+	}
+
+	@Test
+	void substringPrefixAndEmailMatches() {
+		index.build();
+		assertEquals(List.of(2L), ids("smith", Field.NAME_OR_EMAIL, false, 10));
+		assertEquals(List.of(3L), ids("hnso", Field.NAME, false, 10));
+		assertEquals(List.of(1L), ids("jo", Field.NAME, true, 10));
+		assertEquals(List.of(), ids("doe", Field.NAME, true, 10));
+		assertEquals(List.of(4L), ids("brown.org", Field.NAME_OR_EMAIL, false, 10));
+		assertEquals(List.of(), ids("brown.org", Field.NAME, false, 10));
+		assertEquals(List.of(1L), ids("ohn", Field.NAME, false, 1));
+	}
+
+	@Test
+	void shortSubstringQueriesAreLeftToTheDatabase() {
+		index.build();
+		assertTrue(index.search("j", Field.NAME, false, 10).isEmpty());
+		assertTrue(index.search("jo", Field.NAME_OR_EMAIL, false, 10).isEmpty());
+		assertEquals(List.of(1L, 2L), ids("j", Field.NAME, true, 10));
+	}
+
+	@Test
+	void rebuildPicksUpChangesMadeElsewhere() {
+		index.build();
+		stored.remove(3);
+		stored.add(user(5L, "Eve Brown", "eve@example.com"));
+		index.build();
+
+		assertEquals(List.of(5L), ids("brown", Field.NAME, false, 10));
+		assertEquals(4, index.size());
+	}
+
+	@Test
+	void updatesAndRemovalsAreVisible() {
+		index.build();
+		index.put(user(2L, "Jane Doe", "jane.doe@example.com"));
+		index.put(user(5L, "Dora Doe", "dora@example.com"));
+		index.remove(1L);
+
+		assertEquals(List.of(2L, 5L), ids("doe", Field.NAME, false, 10));
+		assertEquals(List.of(), ids("smith", Field.NAME_OR_EMAIL, false, 10));
+		assertEquals(4, index.size());
+	}
+
+	private List<Long> ids(String query, Field field, boolean prefix, int limit) {
+		return index.search(query, field, prefix, limit).orElseThrow().stream().map(User::getId).toList();
+	}
+
+	private static User user(Long id, String name, String email) {
+		User user = new User(name, email, null);
+		user.setId(id);
+		return user;
+	}
+}